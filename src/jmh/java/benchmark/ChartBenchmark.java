@@ -0,0 +1,84 @@
+package benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import javax.swing.SwingUtilities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javafx.application.Platform;
+import javafx.embed.swing.JFXPanel;
+import model.TaskSchedule;
+import view.Panes;
+
+/**
+ * Rebuild of the Gantt charts when a new schedule is published. The schedule is published again from the result cache
+ * on the JavaFX thread, like in the application, and the event is delivered there directly. Needs a display.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChartBenchmark {
+
+	@Param({"100", "1000", "10000"})
+	public int numTasks;
+
+	@Param({"10", "100"})
+	public int numPeople;
+
+	private TaskSchedule schedule;
+	private Panes panes;
+
+	@Setup
+	public void setUp() throws Exception {
+		SwingUtilities.invokeAndWait(() -> new JFXPanel()); // Starts the JavaFX toolkit.
+		schedule = ProjectGenerator.schedule(ProjectGenerator.Shape.RANDOM, numTasks, numPeople,
+				ProjectGenerator.temporaryFile("tasks"), ProjectGenerator.temporaryFile("people"));
+		schedule.setEventDispatcher(Runnable::run); // The panes are told on the thread publishing the schedule.
+		schedule.scheduleTasks(); // Fills the result cache.
+		panes = onFxThread(() -> new Panes(schedule));
+	}
+
+	/**
+	 * Publishes the cached schedule, which clears and refills the task and people charts.
+	 */
+	@Benchmark
+	public Panes updateSchedule() throws Exception {
+		return onFxThread(() -> {
+			schedule.scheduleTasks();
+			return panes;
+		});
+	}
+
+	private static <T> T onFxThread(Supplier<T> action) throws InterruptedException {
+		AtomicReference<T> result = new AtomicReference<T>();
+		CountDownLatch done = new CountDownLatch(1);
+		Platform.runLater(() -> {
+			try {
+				result.set(action.get());
+			} finally {
+				done.countDown();
+			}
+		});
+		done.await();
+		return result.get();
+	}
+
+}
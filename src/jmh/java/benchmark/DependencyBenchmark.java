@@ -0,0 +1,70 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import model.Task;
+
+/**
+ * Adding dependencies to a task and looking them up, as the dependencies pane does.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int numDependencies;
+
+	private ArrayList<Task> dependencies;
+	private Task task;
+
+	@Setup
+	public void setUp() {
+		dependencies = ProjectGenerator.tasks(ProjectGenerator.Shape.INDEPENDENT, numDependencies, 42L);
+		task = new Task("Task", 1.0, numDependencies);
+		for(Task d : dependencies) {
+			task.addDependency(d);
+		}
+	}
+
+	/**
+	 * Adds every dependency to a new task.
+	 */
+	@Benchmark
+	public Task addDependency() {
+		Task t = new Task("Task", 1.0, numDependencies);
+		for(Task d : dependencies) {
+			t.addDependency(d);
+		}
+		return t;
+	}
+
+	/**
+	 * Checks every dependency of a task.
+	 */
+	@Benchmark
+	public void hasDependency(Blackhole blackhole) {
+		for(Task d : dependencies) {
+			blackhole.consume(task.hasDependency(d));
+		}
+	}
+
+}
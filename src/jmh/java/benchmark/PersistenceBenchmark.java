@@ -0,0 +1,69 @@
+package benchmark;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.TaskSchedule;
+
+/**
+ * Reading and writing the tasks and people files, on temporary files.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistenceBenchmark {
+
+	@Param({"INDEPENDENT", "CHAIN", "RANDOM"})
+	public ProjectGenerator.Shape shape;
+
+	@Param({"100", "1000", "10000"})
+	public int numTasks;
+
+	@Param({"100"})
+	public int numPeople;
+
+	private File fileTasks, filePeople;
+	private TaskSchedule schedule;
+
+	@Setup
+	public void setUp() {
+		fileTasks = ProjectGenerator.temporaryFile("tasks");
+		filePeople = ProjectGenerator.temporaryFile("people");
+		schedule = ProjectGenerator.schedule(shape, numTasks, numPeople, fileTasks, filePeople);
+		schedule.writeFiles();
+	}
+
+	/**
+	 * Writes the tasks and the people.
+	 */
+	@Benchmark
+	public TaskSchedule writeFiles() {
+		schedule.writeFiles();
+		return schedule;
+	}
+
+	/**
+	 * Reads the tasks and the people and links the dependencies.
+	 */
+	@Benchmark
+	public TaskSchedule readFiles() {
+		return new TaskSchedule(fileTasks, filePeople);
+	}
+
+}
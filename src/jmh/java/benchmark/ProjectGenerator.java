@@ -0,0 +1,132 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Random;
+
+import model.Person;
+import model.Task;
+import model.TaskSchedule;
+
+/**
+ * Builds reproducible projects for the benchmarks, without touching the application resources.
+ *
+ */
+public final class ProjectGenerator {
+
+	/**
+	 * Shape of the dependency graph between the tasks.
+	 */
+	public enum Shape {
+		/** No dependencies at all. */
+		INDEPENDENT,
+		/** The first tenth of the tasks are roots; every other task depends on up to 3 of them. */
+		TWO_LEVEL,
+		/** Every task depends on the previous one. */
+		CHAIN,
+		/** Layers of 50 tasks; every task depends on 2 tasks of the previous layer. */
+		LAYERED,
+		/** Every task depends on up to 3 tasks among the previous 50. */
+		RANDOM
+	}
+
+	private static final int LAYER = 50;
+
+	private ProjectGenerator() {
+	}
+
+	/**
+	 * Creates tasks with efforts between 1 and 99 and links them according to the shape.
+	 * @param shape shape of the dependency graph
+	 * @param numTasks number of tasks
+	 * @param seed seed of the random efforts and dependencies
+	 * @return tasks, with IDs from 0 to numTasks - 1
+	 */
+	public static ArrayList<Task> tasks(Shape shape, int numTasks, long seed) {
+		Random rand = new Random(seed);
+		ArrayList<Task> tasks = new ArrayList<Task>(numTasks);
+		for(int i = 0; i < numTasks; i++) {
+			Task t = new Task("Task" + i, 1 + rand.nextInt(99), i);
+			switch(shape) {
+			case TWO_LEVEL:
+				int roots = Math.max(1, numTasks / 10);
+				if(i >= roots) {
+					int count = 1 + rand.nextInt(3);
+					for(int j = 0; j < count; j++) {
+						Task d = tasks.get(rand.nextInt(roots));
+						if(!t.hasDependency(d)) { link(d, t); }
+					}
+				}
+				break;
+			case CHAIN:
+				if(i > 0) { link(tasks.get(i - 1), t); }
+				break;
+			case LAYERED:
+				if(i >= LAYER) {
+					int layerStart = (i / LAYER - 1) * LAYER;
+					Task a = tasks.get(layerStart + rand.nextInt(LAYER));
+					Task b = tasks.get(layerStart + rand.nextInt(LAYER));
+					link(a, t);
+					if(b != a) { link(b, t); }
+				}
+				break;
+			case RANDOM:
+				int links = i > 0 ? rand.nextInt(4) : 0;
+				for(int j = 0; j < links; j++) {
+					Task d = tasks.get(Math.max(0, i - LAYER) + rand.nextInt(Math.min(i, LAYER)));
+					if(!t.hasDependency(d)) { link(d, t); }
+				}
+				break;
+			default:
+				break;
+			}
+			tasks.add(t);
+		}
+		return tasks;
+	}
+
+	/**
+	 * Creates a schedule backed by the given files and fills it with generated tasks and people.
+	 * @param shape shape of the dependency graph
+	 * @param numTasks number of tasks
+	 * @param numPeople number of people
+	 * @param fileTasks file the schedule reads and writes the tasks to
+	 * @param filePeople file the schedule reads and writes the people to
+	 * @return the schedule
+	 */
+	public static TaskSchedule schedule(Shape shape, int numTasks, int numPeople, File fileTasks, File filePeople) {
+		TaskSchedule schedule = new TaskSchedule(fileTasks, filePeople);
+		schedule.clearTasks();
+		schedule.clearPeople();
+		for(int i = 0; i < numPeople; i++) {
+			schedule.addPerson(new Person("First" + i, "Last" + i, "person" + i + "@example.com", i));
+		}
+		for(Task t : tasks(shape, numTasks, 42L)) {
+			schedule.addTask(t);
+		}
+		return schedule;
+	}
+
+	/**
+	 * Creates a temporary file deleted when the JVM exits.
+	 * @param prefix prefix of the file name
+	 * @return the file, which does not exist yet
+	 */
+	public static File temporaryFile(String prefix) {
+		try {
+			File file = File.createTempFile(prefix, ".txt");
+			file.delete();
+			file.deleteOnExit();
+			return file;
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void link(Task dependency, Task dependent) {
+		dependency.addDependent(dependent);
+		dependent.addDependency(dependency);
+	}
+
+}
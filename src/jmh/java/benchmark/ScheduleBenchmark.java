@@ -0,0 +1,58 @@
+package benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.TaskSchedule;
+
+/**
+ * Full schedule of a project, for several graph shapes and sizes. The result cache is disabled in the fork, or every
+ * call after the first would only publish the cached result again.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dplanner.scheduleCacheSize=0")
+public class ScheduleBenchmark {
+
+	@Param({"INDEPENDENT", "TWO_LEVEL", "CHAIN", "LAYERED", "RANDOM"})
+	public ProjectGenerator.Shape shape;
+
+	@Param({"100", "1000", "10000"})
+	public int numTasks;
+
+	@Param({"10"})
+	public int numPeople;
+
+	private TaskSchedule schedule;
+
+	@Setup
+	public void setUp() {
+		schedule = ProjectGenerator.schedule(shape, numTasks, numPeople,
+				ProjectGenerator.temporaryFile("tasks"), ProjectGenerator.temporaryFile("people"));
+	}
+
+	/**
+	 * Reschedules from scratch, as after adding a person; the cache being disabled, the schedule is computed every time.
+	 */
+	@Benchmark
+	public boolean scheduleTasks() {
+		schedule.setNewScheduleRequired(true);
+		return schedule.scheduleTasks();
+	}
+
+}
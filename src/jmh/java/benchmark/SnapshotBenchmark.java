@@ -0,0 +1,63 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import model.DependencyGraph;
+import model.Task;
+import model.TaskSnapshot;
+
+/**
+ * Copy of the tasks taken before every schedule, which used to be a serialization deep clone.
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+	@Param({"LAYERED", "RANDOM"})
+	public ProjectGenerator.Shape shape;
+
+	@Param({"100", "1000", "10000"})
+	public int numTasks;
+
+	private ArrayList<Task> tasks;
+
+	@Setup
+	public void setUp() {
+		tasks = ProjectGenerator.tasks(shape, numTasks, 42L);
+	}
+
+	/**
+	 * Copies the tasks and links the copies.
+	 */
+	@Benchmark
+	public TaskSnapshot snapshot() {
+		return new TaskSnapshot(tasks);
+	}
+
+	/**
+	 * Builds the dependency graph alone, which the snapshot includes.
+	 */
+	@Benchmark
+	public DependencyGraph graph() {
+		return new DependencyGraph(tasks);
+	}
+
+}
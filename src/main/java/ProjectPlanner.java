@@ -1,9 +1,17 @@
+import cli.HeadlessPlanner;
 import javafx.application.Application;
 import view.ApplicationWindow;
 
 public class ProjectPlanner {
 
 	public static void main(String[] args) {
+		if(HeadlessPlanner.isHeadless(args)) {
+			System.exit(HeadlessPlanner.run(args, System.out, System.err)); // Never loads JavaFX.
+		}
+		launch(args);
+	}
+
+	private static void launch(String[] args) {
 		Application.launch(ApplicationWindow.class, args);
 	}
 
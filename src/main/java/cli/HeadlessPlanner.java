@@ -0,0 +1,281 @@
+package cli;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import com.google.gson.stream.JsonWriter;
+
+import model.CsvProjectFile;
+import model.Person;
+import model.ScheduleResult;
+import model.SchedulingPolicy;
+import model.Task;
+import model.TaskSchedule;
+
+/**
+ * Command-line entry point that works on a project without the JavaFX toolkit, for batch jobs and scripts.
+ * Usage: ProjectPlanner schedule --tasks FILE --people FILE [--output FILE] [--policy NAME]...
+ * The schedule is written as JSON to the output file, or to the standard output.
+ * The import and export commands exchange the tasks, people and dependencies of the project with CSV files
+ * (see CsvProjectFile).
+ *
+ */
+public final class HeadlessPlanner {
+
+	/**
+	 * First argument that selects the headless mode.
+	 */
+	public static final String COMMAND_SCHEDULE = "schedule";
+	/**
+	 * First argument that adds the content of CSV files to a project.
+	 */
+	public static final String COMMAND_IMPORT = "import";
+	/**
+	 * First argument that writes a project to CSV files.
+	 */
+	public static final String COMMAND_EXPORT = "export";
+
+	/**
+	 * Exit code when the schedule was written.
+	 */
+	public static final int EXIT_OK = 0;
+	/**
+	 * Exit code when the project cannot be scheduled.
+	 */
+	public static final int EXIT_NOT_SCHEDULED = 1;
+	/**
+	 * Exit code when the arguments are invalid or a file cannot be written.
+	 */
+	public static final int EXIT_USAGE = 2;
+	/**
+	 * Exit code when a CSV file cannot be imported; the project is left as it was.
+	 */
+	public static final int EXIT_INVALID_DATA = 3;
+
+	private static final String USAGE = "Usage: ProjectPlanner schedule --tasks FILE --people FILE [--output FILE] [--policy NAME]...\n"
+			+ "       ProjectPlanner import --tasks FILE --people FILE [--tasks-csv FILE] [--people-csv FILE] [--dependencies-csv FILE]\n"
+			+ "       ProjectPlanner export --tasks FILE --people FILE --tasks-csv FILE --people-csv FILE --dependencies-csv FILE\n"
+			+ "Policies: " + Arrays.toString(SchedulingPolicy.values()) + "; with several policies, the shortest schedule is kept.";
+
+	private HeadlessPlanner() {
+	}
+
+	/**
+	 * Checks if the arguments select a headless command.
+	 * @param args arguments of the application
+	 * @return true if the application must run without a window, false otherwise
+	 */
+	public static boolean isHeadless(String[] args) {
+		return args.length > 0 && (args[0].equals(COMMAND_SCHEDULE) || args[0].equals(COMMAND_IMPORT) || args[0].equals(COMMAND_EXPORT));
+	}
+
+	/**
+	 * Runs the command given in the arguments.
+	 * @param args arguments of the application, starting with the command
+	 * @param out stream the schedule is written to when no output file is given
+	 * @param err stream the errors are written to
+	 * @return exit code of the command
+	 */
+	public static int run(String[] args, PrintStream out, PrintStream err) {
+		String command = args.length > 0 ? args[0] : "";
+		List<String> options = command.equals(COMMAND_SCHEDULE) ? Arrays.asList("--tasks", "--people", "--output")
+				: Arrays.asList("--tasks", "--people", "--tasks-csv", "--people-csv", "--dependencies-csv");
+		HashMap<String, File> files = new HashMap<String, File>();
+		ArrayList<SchedulingPolicy> policies = new ArrayList<SchedulingPolicy>();
+		for(int i = 1; i < args.length; i++) {
+			if(i + 1 == args.length) {
+				err.println("Missing value after " + args[i]);
+				err.println(USAGE);
+				return EXIT_USAGE;
+			}
+			String option = args[i], value = args[++i];
+			if(option.equals("--policy") && command.equals(COMMAND_SCHEDULE)) {
+				try {
+					policies.add(SchedulingPolicy.valueOf(value));
+				} catch (IllegalArgumentException e) {
+					err.println("Unknown policy: " + value);
+					err.println(USAGE);
+					return EXIT_USAGE;
+				}
+			}else if(options.contains(option)) {
+				files.put(option, new File(value));
+			}else{
+				err.println("Unknown option: " + option);
+				err.println(USAGE);
+				return EXIT_USAGE;
+			}
+		}
+		File fileTasks = files.get("--tasks"), filePeople = files.get("--people");
+		if(fileTasks == null || filePeople == null) {
+			err.println(USAGE);
+			return EXIT_USAGE;
+		}
+		switch(command) {
+		case COMMAND_IMPORT:
+			return importCsv(fileTasks, filePeople, files.get("--tasks-csv"), files.get("--people-csv"), files.get("--dependencies-csv"), out, err);
+		case COMMAND_EXPORT:
+			return exportCsv(fileTasks, filePeople, files.get("--tasks-csv"), files.get("--people-csv"), files.get("--dependencies-csv"), err);
+		default:
+			return schedule(fileTasks, filePeople, files.get("--output"), policies, out, err);
+		}
+	}
+
+	/*
+	 * Schedules the project and writes the schedule.
+	 */
+	private static int schedule(File fileTasks, File filePeople, File fileOutput, List<SchedulingPolicy> policies, PrintStream out, PrintStream err) {
+		if(!fileTasks.isFile() || !filePeople.isFile()) {
+			err.println("File not found: " + (fileTasks.isFile() ? filePeople : fileTasks));
+			return EXIT_USAGE;
+		}
+
+		TaskSchedule schedule = new TaskSchedule(fileTasks, filePeople);
+		boolean isScheduled = policies.isEmpty() ? schedule.scheduleTasks()
+				: schedule.scheduleTasks(policies.toArray(new SchedulingPolicy[policies.size()]));
+		if(!isScheduled) {
+			ArrayList<Task> cycle = schedule.findDependencyCycle();
+			if(!cycle.isEmpty()) {
+				StringBuilder path = new StringBuilder();
+				for(Task t : cycle) {
+					path.append(t.getName()).append(" -> ");
+				}
+				err.println("Dependency loop: " + path.append(cycle.get(0).getName()));
+			}else{
+				err.println("Nothing to schedule: at least one task without dependencies and one person are required.");
+			}
+			return EXIT_NOT_SCHEDULED;
+		}
+
+		try {
+			if(fileOutput == null) {
+				Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+				writeSchedule(schedule, writer);
+				writer.flush(); // The standard output stays open.
+			}else{
+				try(Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(fileOutput), StandardCharsets.UTF_8))) {
+					writeSchedule(schedule, writer);
+				}
+			}
+		} catch (IOException e) {
+			err.println("Cannot write the schedule: " + e.getMessage());
+			return EXIT_USAGE;
+		}
+		return EXIT_OK;
+	}
+
+	/*
+	 * Adds the content of the CSV files given to the project, which is created if its files do not exist yet.
+	 */
+	private static int importCsv(File fileTasks, File filePeople, File fileTasksCsv, File filePeopleCsv, File fileDependenciesCsv,
+			PrintStream out, PrintStream err) {
+		if(fileTasksCsv == null && filePeopleCsv == null && fileDependenciesCsv == null) {
+			err.println(USAGE);
+			return EXIT_USAGE;
+		}
+		for(File f : new File[] {fileTasksCsv, filePeopleCsv, fileDependenciesCsv}) {
+			if(f != null && !f.isFile()) {
+				err.println("File not found: " + f);
+				return EXIT_USAGE;
+			}
+		}
+		CsvProjectFile imported;
+		try {
+			imported = CsvProjectFile.read(fileTasksCsv, filePeopleCsv, fileDependenciesCsv);
+		} catch (IOException e) {
+			err.println("Cannot import: " + e.getMessage());
+			return EXIT_INVALID_DATA;
+		}
+		TaskSchedule schedule = new TaskSchedule(fileTasks, filePeople);
+		try {
+			schedule.importProject(imported);
+		} catch (IllegalArgumentException e) {
+			err.println("Cannot import: " + e.getMessage());
+			return EXIT_INVALID_DATA;
+		}
+		schedule.writeFiles();
+		out.println("Imported " + imported.getTasks().size() + " tasks, " + imported.getPeople().size() + " people and "
+				+ imported.getDependencies().length / 2 + " dependencies.");
+		return EXIT_OK;
+	}
+
+	/*
+	 * Writes the tasks, people and dependencies of the project to the CSV files given.
+	 */
+	private static int exportCsv(File fileTasks, File filePeople, File fileTasksCsv, File filePeopleCsv, File fileDependenciesCsv, PrintStream err) {
+		if(fileTasksCsv == null || filePeopleCsv == null || fileDependenciesCsv == null) {
+			err.println(USAGE);
+			return EXIT_USAGE;
+		}
+		if(!fileTasks.isFile() || !filePeople.isFile()) {
+			err.println("File not found: " + (fileTasks.isFile() ? filePeople : fileTasks));
+			return EXIT_USAGE;
+		}
+		TaskSchedule schedule = new TaskSchedule(fileTasks, filePeople);
+		try {
+			CsvProjectFile.write(fileTasksCsv, filePeopleCsv, fileDependenciesCsv, schedule.getTasks(), schedule.getPeople().values());
+		} catch (IOException e) {
+			err.println("Cannot export: " + e.getMessage());
+			return EXIT_USAGE;
+		}
+		return EXIT_OK;
+	}
+
+	/**
+	 * Writes the makespan, the tasks in start order and the tasks assigned to every person.
+	 * @param schedule schedule that has been computed
+	 * @param writer destination of the JSON document, left open
+	 * @throws IOException if the document cannot be written
+	 */
+	public static void writeSchedule(TaskSchedule schedule, Writer writer) throws IOException {
+		ScheduleResult result = schedule.getScheduleResult();
+		JsonWriter json = new JsonWriter(writer);
+		json.setIndent("  ");
+		json.beginObject();
+		json.name("makespan").value(result.getMakespan());
+		json.name("tasks").beginArray();
+		for(Task t : schedule.getScheduledTasks()) {
+			json.beginObject();
+			json.name("id").value(t.getID());
+			json.name("name").value(t.getName());
+			json.name("effort").value(t.getEffortEstimate());
+			json.name("start").value(result.getTimeStart(t.getID()));
+			json.name("end").value(result.getTimeEnd(t.getID()));
+			json.name("people").value(result.getHeadcount(t.getID()));
+			json.endObject();
+		}
+		json.endArray();
+		json.name("people").beginArray();
+		ArrayList<Integer> personIds = new ArrayList<Integer>(schedule.getPeople().keySet());
+		Collections.sort(personIds);
+		for(int id : personIds) {
+			Person p = schedule.getPeople().get(id);
+			json.beginObject();
+			json.name("id").value(id);
+			json.name("name").value(p.getFirstName() + " " + p.getLastName());
+			json.name("tasks").beginArray();
+			int[] taskIds = result.getAssignedTaskIDs(id);
+			if(taskIds != null) {
+				for(int taskId : taskIds) {
+					json.value(taskId);
+				}
+			}
+			json.endArray();
+			json.endObject();
+		}
+		json.endArray();
+		json.endObject();
+		json.flush();
+	}
+
+}
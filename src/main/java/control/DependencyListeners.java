@@ -46,7 +46,7 @@ public class DependencyListeners implements EventHandler<MouseEvent>{
 	 * Interprets which list was clicked and then acts accordingly.
 	 * If the available tasks list was clicked, the task is added as a dependency to the selected task and
 	 * it is checked whether this is valid (to avoid dependency loops). If it is invalid, the task is removed from
-	 * being a dependency and an error message is show to the user.
+	 * being a dependency and the loop is shown to the user.
 	 * If the dependencies list is clicked, the clicked task is removed from the selected task's dependencies.
 	 * @SuppressWarnings("unchecked")
 	 * @Override
@@ -58,26 +58,26 @@ public class DependencyListeners implements EventHandler<MouseEvent>{
             if(lvEvent.getId().equals("ListOfTasks")){
             	Task selectedTask = (Task) lvTasks.getSelectionModel().getSelectedItem();
                	if(selectedTask != null){
-               		cbTasks.getSelectionModel().getSelectedItem().addDependency(selectedTask);
-               		selectedTask.addDependent(cbTasks.getSelectionModel().getSelectedItem());
-               		schedule.setNewScheduleRequired(true);
-               		if(schedule.scheduleTasks()){
+               		ArrayList<Task> cycle = schedule.addDependency(cbTasks.getSelectionModel().getSelectedItem(), selectedTask);
+               		if(cycle.isEmpty()){
                			updateTaskListViews();
                		}else{
-               			cbTasks.getSelectionModel().getSelectedItem().removeDependency(selectedTask);
-                   		selectedTask.removeDependent(cbTasks.getSelectionModel().getSelectedItem());
+                   		StringBuilder path = new StringBuilder();
+                   		for(Task t : cycle){
+                   			path.append(t.getName()).append(" -> ");
+                   		}
+                   		path.append(cycle.get(0).getName());
                    		Alert alert = new Alert(AlertType.INFORMATION);
                    		alert.setTitle("Task Scheduling");
                    		alert.setHeaderText("Dependency could not be established");
-                   		alert.setContentText("This is either due to a dependency loop, or the \n" + "fact that no people currently exist in the system.");
+                   		alert.setContentText("This would create a dependency loop: \n" + path);
                    		alert.showAndWait();
                		}
                	}
             }else{
             	Task selectedTask = (Task) lvDependencies.getSelectionModel().getSelectedItem();
                	if(selectedTask != null){
-               		cbTasks.getSelectionModel().getSelectedItem().removeDependency(selectedTask);
-               		selectedTask.removeDependent(cbTasks.getSelectionModel().getSelectedItem());
+               		schedule.removeDependency(cbTasks.getSelectionModel().getSelectedItem(), selectedTask);
                    	updateTaskListViews();
                	}
             }
@@ -91,12 +91,11 @@ public class DependencyListeners implements EventHandler<MouseEvent>{
     	lvTasks.setVisible(true);
 		lvDependencies.setVisible(true);
 
-		schedule.setNewScheduleRequired(true);
-    	ArrayList<Task> availableTasks = new ArrayList<Task>(schedule.getTasks());
     	Task selectedTask = (Task) cbTasks.getSelectionModel().getSelectedItem();
-    	availableTasks.remove(selectedTask);
-    	availableTasks.removeAll(selectedTask.getDependencies());
-    	availableTasks.removeAll(selectedTask.getDependents());
+    	ArrayList<Task> availableTasks = new ArrayList<Task>(schedule.getTasks().size());
+    	for(Task t : schedule.getTasks()){
+    		if(!t.equals(selectedTask) && !selectedTask.hasDependency(t) && !selectedTask.hasDependent(t)) availableTasks.add(t);
+    	}
 
     	lvTasks.getItems().clear();
     	lvTasks.setItems(FXCollections.observableArrayList(availableTasks));
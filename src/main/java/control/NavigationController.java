@@ -6,13 +6,19 @@ import java.util.Optional;
 
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
+import javafx.geometry.Pos;
 import javafx.stage.WindowEvent;
+import javafx.scene.Node;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceDialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import model.ScheduleJob;
 import model.TaskSchedule;
 import view.Panes;
 
@@ -24,6 +30,9 @@ public class NavigationController implements EventHandler<ActionEvent>{
 	private Panes panes;
 	private BorderPane mainLayout;
 	private TaskSchedule schedule;
+	private ScheduleService scheduleService;
+	private VBox progressPane;
+	private Node paneBeforeSchedule;
 
 	/**
 	 * Initialises the controller by taking as parameters; the class containing all panes, the active pane that
@@ -36,11 +45,61 @@ public class NavigationController implements EventHandler<ActionEvent>{
 		this.panes = panes;
 		this.mainLayout = mainLayout;
 		this.schedule = schedule;
+		this.scheduleService = new ScheduleService(schedule);
+		scheduleService.setOnSucceeded(event -> showSchedule(scheduleService.getValue()));
+		scheduleService.setOnFailed(event -> {
+			scheduleService.getException().printStackTrace();
+			if(mainLayout.getCenter() == progressPane) mainLayout.setCenter(paneBeforeSchedule);
+		});
+		this.progressPane = setUpAndGetProgressPane();
+	}
+
+	/*
+	 * Sets up the pane shown while the schedule is computed, with a button that stops the computation.
+	 */
+	private VBox setUpAndGetProgressPane(){
+		ProgressBar progress = new ProgressBar();
+		progress.setPrefWidth(300);
+		progress.progressProperty().bind(scheduleService.progressProperty());
+		Button btnCancel = new Button("Cancel");
+		btnCancel.setOnAction(event -> {
+			scheduleService.cancel();
+			mainLayout.setCenter(paneBeforeSchedule);
+		});
+		VBox pane = new VBox(10, new Label("Computing the schedule..."), progress, btnCancel);
+		pane.setAlignment(Pos.CENTER);
+		return pane;
+	}
+
+	/*
+	 * Publishes a schedule computed in the background, on the application thread. The schedule pane is only shown if the
+	 * user is still waiting for it; a schedule that is out of date because of changes made meanwhile is computed again.
+	 */
+	private void showSchedule(ScheduleJob job){
+		boolean isWaiting = mainLayout.getCenter() == progressPane;
+		if(job != null && job.isScheduled()) {
+			if(schedule.publishSchedule(job)) {
+				if(isWaiting) mainLayout.setCenter(panes.getSchedulePane());
+			}else if(isWaiting) {
+				scheduleService.restart(); // The tasks or the people changed meanwhile.
+			}
+			return;
+		}
+		if(!isWaiting) return;
+		mainLayout.setCenter(paneBeforeSchedule);
+		Alert alert = new Alert(AlertType.INFORMATION);
+		alert.setTitle("Task Scheduling");
+		alert.setHeaderText("Task Scheduling was not able to produce a result");
+		alert.setContentText("The Task Scheduling Application has detected an issue regarding the data inserted: \n\n"
+				+ "When trying to run the Application, there was no task without dependencies or people to work on tasks.");
+		alert.getDialogPane().setMinHeight(Region.USE_PREF_SIZE);
+		alert.showAndWait();
 	}
 
 	/**
 	 * Identifies the navigation button clicked and switches the pane currently being displayed.
-	 * If the "show schedule" button is clicked and no schedule can be produced, an error message is shown.
+	 * If the "show schedule" button is clicked, the schedule is computed in the background while its progress is shown;
+	 * if no schedule can be produced, an error message is shown.
 	 * @Override
 	 */
 	public void handle(ActionEvent arg0) {
@@ -57,17 +116,13 @@ public class NavigationController implements EventHandler<ActionEvent>{
 				mainLayout.setCenter(panes.getDependenciesPane());
 				break;
 			case "Schedule": {
-				if (schedule.scheduleTasks()) {
+				if (!schedule.isNewScheduleRequired()) {
 					mainLayout.setCenter(panes.getSchedulePane());
-				} else {
-					Alert alert = new Alert(AlertType.INFORMATION);
-					alert.setTitle("Task Scheduling");
-					alert.setHeaderText("Task Scheduling was not able to produce a result");
-					alert.setContentText("The Task Scheduling Application has detected an issue regarding the data inserted: \n\n"
-							+ "When trying to run the Application, there was no task without dependencies or people to work on tasks.");
-					alert.getDialogPane().setMinHeight(Region.USE_PREF_SIZE);
-					alert.showAndWait();
+					break;
 				}
+				if (mainLayout.getCenter() != progressPane) paneBeforeSchedule = mainLayout.getCenter();
+				mainLayout.setCenter(progressPane);
+				scheduleService.restart(); // Cancels a run started before, whose tasks may be out of date.
 				break;
 			}
 		}
@@ -80,6 +135,7 @@ public class NavigationController implements EventHandler<ActionEvent>{
 		/**
 		 * Displays options to the user when they attempt to exit the application.
 		 * The options allow users to save their data, discard any changes, clear task and/or person data.
+		 * Saving only marks the journaled changes as saved; discarding removes them from the journal.
 		 * @Override
 		 */
 		public void handle(WindowEvent event) {
@@ -94,17 +150,19 @@ public class NavigationController implements EventHandler<ActionEvent>{
 
 			if(result.isPresent()){
 				if(result.get() == "Save Changes"){
-				    schedule.writeFiles();
+				    schedule.saveChanges();
+				}else if(result.get() == "Discard Changes"){
+					schedule.discardChanges();
 				}else if(result.get() == "Clear Task data"){
-					schedule.getTasks().clear();
-					schedule.writeFiles();
+					schedule.clearTasks();
+					schedule.writeFilesAsync(); // The save thread keeps the application running until it ends.
 				}else if(result.get() == "Clear Person data"){
-					schedule.getPeople().clear();
-					schedule.writeFiles();
+					schedule.clearPeople();
+					schedule.writeFilesAsync();
 				}else if(result.get() == "Clear All data"){
-					schedule.getTasks().clear();
-					schedule.getPeople().clear();
-					schedule.writeFiles();
+					schedule.clearTasks();
+					schedule.clearPeople();
+					schedule.writeFilesAsync();
 				}
 			}else{
 				event.consume();
@@ -33,7 +33,6 @@ public class PersonController implements EventHandler<ActionEvent>, ChangeListen
 
 	private int max_input;
 	private int start_id;
-	private final int MAX_PEOPLE = 20;
 
 	/**
 	 * Initialises the controller by taking as parameters; the schedule being used for the system, the max input allowed for the text fields
@@ -64,7 +63,7 @@ public class PersonController implements EventHandler<ActionEvent>, ChangeListen
 	 * @Override
 	 */
 	public void handle(ActionEvent event) {
-		if(schedule.getPeople().size() < MAX_PEOPLE){
+		if(schedule.getPeople().size() < TaskSchedule.MAX_PEOPLE){
 			schedule.addPerson(new Person(tfFName.getText(), tfLName.getText(), tfEmail.getText(), id_allocator.incrementAndGet()));
 			schedule.setNewScheduleRequired(true);
 			tfFName.setText("");
@@ -74,7 +73,7 @@ public class PersonController implements EventHandler<ActionEvent>, ChangeListen
 			Alert alert = new Alert(AlertType.INFORMATION);
 			alert.setTitle("New Person");
 			alert.setHeaderText(null);
-			alert.setContentText("The maximum number of allowed people '" + MAX_PEOPLE + "' has been met");
+			alert.setContentText("The maximum number of allowed people '" + TaskSchedule.MAX_PEOPLE + "' has been met");
 			alert.showAndWait();
 		}
 	}
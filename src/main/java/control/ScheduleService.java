@@ -0,0 +1,45 @@
+package control;
+
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import model.ScheduleJob;
+import model.TaskSchedule;
+
+/**
+ * Computes the schedule on a background thread. The tasks are copied on the application thread when the service is
+ * started, the engine reports its progress through the progress property and stops when the service is cancelled.
+ * Restarting the service cancels the run in progress, so only the latest one ends with a value; the job it returns
+ * must be published with TaskSchedule.publishSchedule on the application thread.
+ *
+ */
+public class ScheduleService extends Service<ScheduleJob> {
+
+	private final TaskSchedule schedule;
+
+	/**
+	 * @param schedule schedule whose tasks and people are scheduled
+	 */
+	public ScheduleService(TaskSchedule schedule) {
+		this.schedule = schedule;
+	}
+
+	/**
+	 * Prepares the job on the application thread; the task returns null if there is nothing to schedule.
+	 * @Override
+	 */
+	protected Task<ScheduleJob> createTask() {
+		ScheduleJob job = schedule.prepareSchedule();
+		return new Task<ScheduleJob>() {
+			@Override
+			protected ScheduleJob call() {
+				if(job == null) return null;
+				job.run((scheduled, total) -> {
+					updateProgress(scheduled, total);
+					return !isCancelled();
+				});
+				return job;
+			}
+		};
+	}
+
+}
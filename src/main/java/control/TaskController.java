@@ -26,7 +26,6 @@ public class TaskController implements EventHandler<ActionEvent>, ChangeListener
 	private Slider sEffort;
 	private int max_input;
 	private int start_id;
-	private final int MAX_TASKS = 20;
 
 	/**
 	 * Initialises the controller by taking as parameters; the schedule being used for the system, the max input allowed for the task name
@@ -52,16 +51,17 @@ public class TaskController implements EventHandler<ActionEvent>, ChangeListener
 	 * @Override
 	 */
 	public void handle(ActionEvent event) {
-		if(schedule.getTasks().size() < MAX_TASKS){
-			schedule.addTask(new Task(tfTaskName.getText(),(Math.round(sEffort.getValue() * 100) / 100), id_allocator.incrementAndGet()));
-			schedule.setNewScheduleRequired(true);
+		if(schedule.getTasks().size() < TaskSchedule.MAX_TASKS){
+			Task task = new Task(tfTaskName.getText(),(Math.round(sEffort.getValue() * 100) / 100), id_allocator.incrementAndGet());
+			schedule.addTask(task);
+			schedule.invalidateTask(task);
 			tfTaskName.setText("");
 			sEffort.setValue(50.0);
 		}else{
 			Alert alert = new Alert(AlertType.INFORMATION);
 			alert.setTitle("New Task");
 			alert.setHeaderText(null);
-			alert.setContentText("The maximum number of allowed tasks '" + MAX_TASKS + "' has been met");
+			alert.setContentText("The maximum number of allowed tasks '" + TaskSchedule.MAX_TASKS + "' has been met");
 			alert.showAndWait();
 		}
 	}
@@ -0,0 +1,274 @@
+package model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Compact binary copy of a project, read through a memory-mapped file so that loading does not parse any text.
+ * The file holds, after a header, fixed-width records for the tasks and the people, the dependencies as pairs of
+ * task record indexes, and a table of the strings the records refer to. All numbers are big-endian.
+ * <pre>
+ * header   magic, version, task count, person count, edge count, string count, string bytes (7 ints)
+ * task     id (int), effort, time start, reduction (doubles), name (string index)        32 bytes
+ * person   id, first name, last name, email (string indexes, -1 for null)               16 bytes
+ * edge     index of the dependency, index of the dependent                              8 bytes
+ * strings  string count + 1 byte offsets, then the UTF-8 bytes
+ * </pre>
+ *
+ */
+public class BinaryProjectFile {
+
+	private static final int MAGIC = 0x50534D42; // "PSMB"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 7 * 4;
+	private static final int TASK_BYTES = 4 + 3 * 8 + 4;
+	private static final int PERSON_BYTES = 4 * 4;
+	private static final int EDGE_BYTES = 2 * 4;
+
+	private final ArrayList<Task> tasks;
+	private final ArrayList<Person> people;
+
+	private BinaryProjectFile(ArrayList<Task> tasks, ArrayList<Person> people) {
+		this.tasks = tasks;
+		this.people = people;
+	}
+
+	/**
+	 * Returns the tasks read, linked to their dependencies and dependents.
+	 * @return tasks in the order they were written
+	 */
+	public ArrayList<Task> getTasks() {
+		return tasks;
+	}
+
+	/**
+	 * Returns the people read.
+	 * @return people in the order they were written
+	 */
+	public ArrayList<Person> getPeople() {
+		return people;
+	}
+
+	/**
+	 * Writes the tasks, their dependencies and the people. Dependencies on tasks that are not written are dropped.
+	 * @param file destination, replaced if it exists
+	 * @param tasks tasks to be written
+	 * @param people people to be written
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(File file, Collection<Task> tasks, Collection<Person> people) throws IOException {
+		HashMap<Integer, Integer> indexById = new HashMap<Integer, Integer>(tasks.size() * 2);
+		int edgeCount = 0;
+		for(Task t : tasks) {
+			indexById.put(t.getID(), indexById.size());
+		}
+		for(Task t : tasks) {
+			for(Task d : t.getDependents()) {
+				if(indexById.containsKey(d.getID())) edgeCount++;
+			}
+		}
+		StringTable strings = new StringTable();
+		int[] taskNames = new int[tasks.size()];
+		int i = 0;
+		for(Task t : tasks) {
+			taskNames[i++] = strings.indexOf(t.getName());
+		}
+		int[] personStrings = new int[people.size() * 3];
+		i = 0;
+		for(Person p : people) {
+			personStrings[i++] = strings.indexOf(p.getFirstName());
+			personStrings[i++] = strings.indexOf(p.getLastName());
+			personStrings[i++] = strings.indexOf(p.getEmail());
+		}
+
+		try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(tasks.size());
+			out.writeInt(people.size());
+			out.writeInt(edgeCount);
+			out.writeInt(strings.size());
+			out.writeInt(strings.byteCount());
+			i = 0;
+			for(Task t : tasks) {
+				out.writeInt(t.getID());
+				out.writeDouble(t.getEffortEstimate());
+				out.writeDouble(t.getTimeStart());
+				out.writeDouble(t.getReduction());
+				out.writeInt(taskNames[i++]);
+			}
+			i = 0;
+			for(Person p : people) {
+				out.writeInt(p.getID());
+				out.writeInt(personStrings[i++]);
+				out.writeInt(personStrings[i++]);
+				out.writeInt(personStrings[i++]);
+			}
+			for(Task t : tasks) {
+				int index = indexById.get(t.getID());
+				for(Task d : t.getDependents()) {
+					Integer dependent = indexById.get(d.getID());
+					if(dependent == null) continue;
+					out.writeInt(index);
+					out.writeInt(dependent);
+				}
+			}
+			strings.write(out);
+		}
+	}
+
+	/**
+	 * Maps the file and rebuilds the tasks, their links and the people.
+	 * @param file file written by write
+	 * @return the content of the file
+	 * @throws IOException if the file cannot be read, or was not entirely written by write
+	 */
+	public static BinaryProjectFile read(File file) throws IOException {
+		try(RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			long length = channel.size();
+			if(length < HEADER_BYTES || length > Integer.MAX_VALUE) throw new IOException("Not a project snapshot: " + file);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			if(buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) throw new IOException("Not a project snapshot: " + file);
+			int taskCount = buffer.getInt(8);
+			int personCount = buffer.getInt(12);
+			int edgeCount = buffer.getInt(16);
+			int stringCount = buffer.getInt(20);
+			int stringBytes = buffer.getInt(24);
+			long taskStart = HEADER_BYTES;
+			long personStart = taskStart + (long) taskCount * TASK_BYTES;
+			long edgeStart = personStart + (long) personCount * PERSON_BYTES;
+			long stringStart = edgeStart + (long) edgeCount * EDGE_BYTES;
+			long expected = stringStart + (stringCount + 1L) * 4 + stringBytes;
+			if(taskCount < 0 || personCount < 0 || edgeCount < 0 || stringCount < 0 || stringBytes < 0 || expected != length) {
+				throw new IOException("Truncated project snapshot: " + file);
+			}
+			StringReader strings = new StringReader(buffer, (int) stringStart, stringCount);
+
+			ArrayList<Task> tasks = new ArrayList<Task>(taskCount);
+			for(int i = 0, at = (int) taskStart; i < taskCount; i++, at += TASK_BYTES) {
+				Task t = new Task(strings.get(buffer.getInt(at + 28)), buffer.getDouble(at + 4), buffer.getInt(at));
+				t.setTimeStart(buffer.getDouble(at + 12));
+				t.setReduction(buffer.getDouble(at + 20));
+				tasks.add(t);
+			}
+			ArrayList<Person> people = new ArrayList<Person>(personCount);
+			for(int i = 0, at = (int) personStart; i < personCount; i++, at += PERSON_BYTES) {
+				people.add(Person.restore(strings.get(buffer.getInt(at + 4)), strings.get(buffer.getInt(at + 8)),
+						strings.get(buffer.getInt(at + 12)), buffer.getInt(at)));
+			}
+			int[] dependencyCount = new int[taskCount], dependentCount = new int[taskCount];
+			for(int i = 0, at = (int) edgeStart; i < edgeCount; i++, at += EDGE_BYTES) { // Sizes the lists before filling them.
+				int dependency = buffer.getInt(at), dependent = buffer.getInt(at + 4);
+				if(dependency < 0 || dependency >= taskCount || dependent < 0 || dependent >= taskCount) {
+					throw new IOException("Corrupted project snapshot: " + file);
+				}
+				dependentCount[dependency]++;
+				dependencyCount[dependent]++;
+			}
+			ArrayList<ArrayList<Task>> dependencies = new ArrayList<ArrayList<Task>>(taskCount), dependents = new ArrayList<ArrayList<Task>>(taskCount);
+			for(int i = 0; i < taskCount; i++) {
+				dependencies.add(new ArrayList<Task>(dependencyCount[i]));
+				dependents.add(new ArrayList<Task>(dependentCount[i]));
+			}
+			for(int i = 0, at = (int) edgeStart; i < edgeCount; i++, at += EDGE_BYTES) { // Edges were written from the dependent lists, so they are unique.
+				int dependency = buffer.getInt(at), dependent = buffer.getInt(at + 4);
+				dependents.get(dependency).add(tasks.get(dependent));
+				dependencies.get(dependent).add(tasks.get(dependency));
+			}
+			for(int i = 0; i < taskCount; i++) {
+				tasks.get(i).setDependencies(dependencies.get(i));
+				tasks.get(i).setDependents(dependents.get(i));
+			}
+			return new BinaryProjectFile(tasks, people);
+		}
+	}
+
+	/*
+	 * Strings to be written, each stored once.
+	 */
+	private static class StringTable {
+
+		private final HashMap<String, Integer> indexByString = new HashMap<String, Integer>();
+		private final ArrayList<byte[]> encoded = new ArrayList<byte[]>();
+		private int byteCount;
+
+		int indexOf(String s) {
+			if(s == null) return -1;
+			Integer index = indexByString.get(s);
+			if(index == null) {
+				index = encoded.size();
+				byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				encoded.add(bytes);
+				byteCount += bytes.length;
+				indexByString.put(s, index);
+			}
+			return index;
+		}
+
+		int size() {
+			return encoded.size();
+		}
+
+		int byteCount() {
+			return byteCount;
+		}
+
+		void write(DataOutputStream out) throws IOException {
+			int offset = 0;
+			out.writeInt(offset);
+			for(byte[] bytes : encoded) {
+				offset += bytes.length;
+				out.writeInt(offset);
+			}
+			for(byte[] bytes : encoded) {
+				out.write(bytes);
+			}
+		}
+
+	}
+
+	/*
+	 * Decodes the strings of a mapped file on first use.
+	 */
+	private static class StringReader {
+
+		private final MappedByteBuffer buffer;
+		private final int offsetsStart, bytesStart;
+		private final String[] decoded;
+		private byte[] bytes = new byte[64];
+
+		StringReader(MappedByteBuffer buffer, int offsetsStart, int count) {
+			this.buffer = buffer;
+			this.offsetsStart = offsetsStart;
+			this.bytesStart = offsetsStart + (count + 1) * 4;
+			this.decoded = new String[count];
+		}
+
+		String get(int index) throws IOException {
+			if(index == -1) return null;
+			if(index < 0 || index >= decoded.length) throw new IOException("Corrupted project snapshot: string " + index);
+			if(decoded[index] == null) {
+				int start = buffer.getInt(offsetsStart + index * 4), end = buffer.getInt(offsetsStart + index * 4 + 4);
+				if(start < 0 || end < start || bytesStart + end > buffer.limit()) throw new IOException("Corrupted project snapshot: string " + index);
+				if(bytes.length < end - start) bytes = new byte[Math.max(end - start, bytes.length * 2)];
+				for(int i = start; i < end; i++) {
+					bytes[i - start] = buffer.get(bytesStart + i);
+				}
+				decoded[index] = new String(bytes, 0, end - start, StandardCharsets.UTF_8);
+			}
+			return decoded[index];
+		}
+
+	}
+
+}
@@ -0,0 +1,245 @@
+package model;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Append-only log of the changes made to a project since its files were last written in full, one JSON record per line:
+ * <pre>
+ * {"op":"addTask","task":{...}}
+ * {"op":"addPerson","person":{...}}
+ * {"op":"addDependency","task":ID,"dependency":ID}
+ * {"op":"removeDependency","task":ID,"dependency":ID}
+ * {"op":"removeTask","task":ID}
+ * {"op":"removePerson","person":ID}
+ * {"op":"commit"}
+ * </pre>
+ * Saving appends a commit record. The records after the last commit were not saved: they are kept to recover
+ * a session that ended without saving or discarding, and are cut off when the changes are discarded.
+ * A last line that was not completely written is ignored and removed. The journal may be emptied by the thread
+ * that saves the project, so its methods are synchronized.
+ *
+ */
+class ChangeJournal {
+
+	static final String ADD_TASK = "addTask";
+	static final String ADD_PERSON = "addPerson";
+	static final String ADD_DEPENDENCY = "addDependency";
+	static final String REMOVE_DEPENDENCY = "removeDependency";
+	static final String REMOVE_TASK = "removeTask";
+	static final String REMOVE_PERSON = "removePerson";
+	private static final String COMMIT = "commit";
+
+	private final File file;
+	private final ArrayList<JsonObject> committed, uncommitted;
+	private long length, committedLength;
+	private int recordCount;
+	private Writer writer;
+
+	/**
+	 * Reads the records already in the file, if any.
+	 * @param file file of the journal
+	 */
+	ChangeJournal(File file) {
+		this(file, true);
+	}
+
+	/**
+	 * @param file file of the journal
+	 * @param isRead whether the records already in the file are read
+	 */
+	ChangeJournal(File file, boolean isRead) {
+		this.file = file;
+		committed = new ArrayList<JsonObject>();
+		uncommitted = new ArrayList<JsonObject>();
+		if(isRead && file.isFile()) read();
+	}
+
+	private void read() {
+		JsonParser parser = new JsonParser();
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+			String line;
+			while((line = reader.readLine()) != null) {
+				JsonElement element;
+				try {
+					element = parser.parse(line);
+				} catch (JsonParseException e) {
+					break; // Torn write of the last record.
+				}
+				if(!element.isJsonObject() || !element.getAsJsonObject().has("op")) break;
+				JsonObject record = element.getAsJsonObject();
+				length += line.getBytes(StandardCharsets.UTF_8).length + 1;
+				if(record.get("op").getAsString().equals(COMMIT)) {
+					committed.addAll(uncommitted);
+					uncommitted.clear();
+					committedLength = length;
+				}else{
+					uncommitted.add(record);
+				}
+				recordCount++;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Returns the saved changes read from the file.
+	 * @return records up to the last commit
+	 */
+	synchronized ArrayList<JsonObject> getCommitted() {
+		return committed;
+	}
+
+	/**
+	 * Returns the changes read from the file that were neither saved nor discarded.
+	 * @return records after the last commit
+	 */
+	synchronized ArrayList<JsonObject> getUncommitted() {
+		return uncommitted;
+	}
+
+	/**
+	 * Returns the number of records written since the file was last emptied, to decide when to compact it.
+	 * @return number of records
+	 */
+	synchronized int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * Checks if new records are written to the file.
+	 * @return true if the journal was opened, false otherwise
+	 */
+	synchronized boolean isOpen() {
+		return writer != null;
+	}
+
+	/**
+	 * Opens the file to append the records that follow the ones read.
+	 * @throws IOException if the file cannot be opened
+	 */
+	synchronized void open() throws IOException {
+		truncate(length); // Drops a torn record, if any.
+		writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Appends a change and flushes it to the file.
+	 * @param record change, with its "op" property
+	 * @throws IOException if the record cannot be written
+	 */
+	synchronized void append(JsonObject record) throws IOException {
+		String line = record.toString();
+		writer.write(line);
+		writer.write('\n');
+		writer.flush();
+		length += line.getBytes(StandardCharsets.UTF_8).length + 1;
+		recordCount++;
+	}
+
+	/**
+	 * Marks every change written so far as saved.
+	 * @throws IOException if the record cannot be written
+	 */
+	synchronized void commit() throws IOException {
+		JsonObject record = new JsonObject();
+		record.addProperty("op", COMMIT);
+		append(record);
+		committedLength = length;
+	}
+
+	/**
+	 * Returns the size of the file, to be given to dropUpTo once the changes written so far are part of the project files.
+	 * @return position after the last record
+	 */
+	synchronized long getLength() {
+		return length;
+	}
+
+	/**
+	 * Removes the records before a position, once they are part of the project files. The records written after it
+	 * are moved to the start of the file, in a single step.
+	 * @param position value of getLength when the project was copied
+	 * @throws IOException if the file cannot be rewritten
+	 */
+	synchronized void dropUpTo(long position) throws IOException {
+		if(position >= length) {
+			reset();
+			return;
+		}
+		boolean isOpen = writer != null;
+		close();
+		byte[] tail = new byte[(int) (length - position)];
+		try(RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			raf.seek(position);
+			raf.readFully(tail);
+		}
+		File temporary = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+		try(FileOutputStream out = new FileOutputStream(temporary)) {
+			out.write(tail);
+		}
+		ProjectSaver.replace(temporary, file);
+		length -= position;
+		committedLength = Math.max(0, committedLength - position);
+		recordCount = 0;
+		for(byte b : tail) {
+			if(b == '\n') recordCount++;
+		}
+		if(isOpen) open();
+	}
+
+	/**
+	 * Removes the changes written after the last commit and closes the journal.
+	 * @throws IOException if the file cannot be truncated
+	 */
+	synchronized void discard() throws IOException {
+		close();
+		truncate(committedLength);
+		length = committedLength;
+	}
+
+	/**
+	 * Empties the file once every change is part of the project files.
+	 * @throws IOException if the file cannot be truncated
+	 */
+	synchronized void reset() throws IOException {
+		if(writer != null) writer.flush();
+		truncate(0);
+		length = committedLength = 0;
+		recordCount = 0;
+	}
+
+	/**
+	 * Closes the file; the records are kept.
+	 * @throws IOException if the file cannot be closed
+	 */
+	synchronized void close() throws IOException {
+		if(writer == null) return;
+		writer.close();
+		writer = null;
+	}
+
+	private void truncate(long size) throws IOException {
+		if(!file.isFile()) return;
+		try(RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			if(raf.length() > size) raf.setLength(size);
+		}
+	}
+
+}
@@ -0,0 +1,165 @@
+package model;
+
+/**
+ * Critical path method over a dependency graph: computes the earliest and latest start of every task, its slack,
+ * and the chain of tasks that drives the makespan, ignoring how many people are available.
+ * The topological order is computed once; every call to analyse is then a forward and a backward O(V+E) sweep
+ * over preallocated arrays, so the same instance can be reused for many sets of durations.
+ *
+ */
+public class CriticalPath {
+
+	private static final double EPSILON = 1e-9;
+
+	private final DependencyGraph graph;
+	private final int[] order;
+	private final boolean isAcyclic;
+	private final double[] durations, earliestStart, latestStart;
+	private double makespan;
+
+	/**
+	 * Orders the tasks of the graph so that every task comes after its dependencies.
+	 * Dependencies on tasks outside the graph are considered completed.
+	 * @param graph dependencies between the tasks
+	 */
+	public CriticalPath(DependencyGraph graph) {
+		this.graph = graph;
+		int n = graph.size();
+		order = new int[n];
+		int[] remaining = new int[n];
+		int tail = 0;
+		for(int i = 0; i < n; i++) {
+			remaining[i] = graph.getDependenciesEnd(i) - graph.getDependenciesStart(i);
+			if(remaining[i] == 0) { order[tail++] = i; }
+		}
+		for(int head = 0; head < tail; head++) {
+			for(int k = graph.getDependentsStart(order[head]); k < graph.getDependentsEnd(order[head]); k++) {
+				if(--remaining[graph.getDependent(k)] == 0) { order[tail++] = graph.getDependent(k); }
+			}
+		}
+		isAcyclic = tail == n;
+		durations = new double[n];
+		earliestStart = new double[n];
+		latestStart = new double[n];
+	}
+
+	/**
+	 * Checks if the tasks could be ordered. If not, there is a dependency loop and analyse must not be called.
+	 * @return true if there is no dependency loop, false otherwise
+	 */
+	public boolean isAcyclic() {
+		return isAcyclic;
+	}
+
+	/**
+	 * Computes the earliest start with a forward sweep and the latest start with a backward sweep.
+	 * @param taskDurations duration of every task, indexed like the graph; the array is copied
+	 */
+	public void analyse(double[] taskDurations) {
+		System.arraycopy(taskDurations, 0, durations, 0, durations.length);
+		makespan = 0.0;
+		for(int i : order) { // Forward: a task starts when its last dependency finishes.
+			double start = 0.0;
+			for(int k = graph.getDependenciesStart(i); k < graph.getDependenciesEnd(i); k++) {
+				int d = graph.getDependency(k);
+				start = Math.max(start, earliestStart[d] + durations[d]);
+			}
+			earliestStart[i] = start;
+			makespan = Math.max(makespan, start + durations[i]);
+		}
+		for(int j = order.length - 1; j >= 0; j--) { // Backward: a task must finish when its first dependent has to start.
+			int i = order[j];
+			double finish = makespan;
+			for(int k = graph.getDependentsStart(i); k < graph.getDependentsEnd(i); k++) {
+				finish = Math.min(finish, latestStart[graph.getDependent(k)]);
+			}
+			latestStart[i] = finish - durations[i];
+		}
+	}
+
+	/**
+	 * Returns the time at which the last task finishes when nothing but dependencies delays the tasks.
+	 * @return makespan of the project
+	 */
+	public double getMakespan() {
+		return makespan;
+	}
+
+	/**
+	 * Returns the earliest time a task can start.
+	 * @param index index of the task in the graph
+	 * @return earliest start
+	 */
+	public double getEarliestStart(int index) {
+		return earliestStart[index];
+	}
+
+	/**
+	 * Returns the latest time a task can start without delaying the project.
+	 * @param index index of the task in the graph
+	 * @return latest start
+	 */
+	public double getLatestStart(int index) {
+		return latestStart[index];
+	}
+
+	/**
+	 * Returns how long a task can be delayed without delaying the project.
+	 * @param index index of the task in the graph
+	 * @return slack (float) of the task
+	 */
+	public double getSlack(int index) {
+		return latestStart[index] - earliestStart[index];
+	}
+
+	/**
+	 * Checks if a task has no slack.
+	 * @param index index of the task in the graph
+	 * @return true if delaying the task delays the project, false otherwise
+	 */
+	public boolean isCritical(int index) {
+		return getSlack(index) <= EPSILON;
+	}
+
+	/**
+	 * Returns one chain of critical tasks, from a task without dependencies to a task finishing at the makespan.
+	 * @return indexes of the tasks on the critical path, in order
+	 */
+	public int[] getCriticalPath() {
+		int last = -1;
+		for(int i = 0; i < order.length && last == -1; i++) {
+			if(isCritical(i) && earliestStart[i] + durations[i] >= makespan - EPSILON) { last = i; }
+		}
+		if(last == -1) { return new int[0]; }
+		int length = 1;
+		int[] path = new int[order.length];
+		path[0] = last;
+		boolean isExtended = true;
+		while(isExtended) { // Walk back through a critical dependency finishing exactly when the current task starts.
+			isExtended = false;
+			int current = path[length - 1];
+			for(int k = graph.getDependenciesStart(current); k < graph.getDependenciesEnd(current); k++) {
+				int d = graph.getDependency(k);
+				if(isCritical(d) && Math.abs(earliestStart[d] + durations[d] - earliestStart[current]) <= EPSILON) {
+					path[length++] = d;
+					isExtended = true;
+					break;
+				}
+			}
+		}
+		int[] result = new int[length];
+		for(int i = 0; i < length; i++) {
+			result[i] = path[length - 1 - i];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the graph the analysis is indexed on.
+	 * @return dependency graph
+	 */
+	public DependencyGraph getGraph() {
+		return graph;
+	}
+
+}
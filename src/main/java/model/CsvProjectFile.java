@@ -0,0 +1,328 @@
+package model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Tasks, people and dependencies exchanged with other tools as three CSV files with a header row (RFC 4180 quoting, UTF-8):
+ * <pre>
+ * tasks         id,name,effort
+ * people        id,first_name,last_name,email
+ * dependencies  task,dependency        (the task depends on the dependency)
+ * </pre>
+ * The columns are found by their header, in any order, and other columns are ignored, so exports of other tools can
+ * be read as they are. The files are split into chunks of whole records that are parsed in parallel on the common
+ * ForkJoinPool; the records keep the order of the file. The tasks are returned without their dependencies, which are
+ * linked by TaskSchedule.importProject once checked against the tasks already planned.
+ *
+ */
+public class CsvProjectFile {
+
+	private static final int CHUNK_BYTES = 1 << 16;
+	private static final String[] TASK_COLUMNS = {"id", "name", "effort"};
+	private static final String[] PERSON_COLUMNS = {"id", "first_name", "last_name", "email"};
+	private static final String[] DEPENDENCY_COLUMNS = {"task", "dependency"};
+
+	private final ArrayList<Task> tasks;
+	private final ArrayList<Person> people;
+	private final int[] dependencies;
+
+	private CsvProjectFile(ArrayList<Task> tasks, ArrayList<Person> people, int[] dependencies) {
+		this.tasks = tasks;
+		this.people = people;
+		this.dependencies = dependencies;
+	}
+
+	/**
+	 * Returns the tasks read, without their dependencies.
+	 * @return tasks in the order of the file
+	 */
+	public ArrayList<Task> getTasks() {
+		return tasks;
+	}
+
+	/**
+	 * Returns the people read.
+	 * @return people in the order of the file
+	 */
+	public ArrayList<Person> getPeople() {
+		return people;
+	}
+
+	/**
+	 * Returns the dependencies read as pairs of task IDs: the task at 2i depends on the task at 2i + 1.
+	 * @return IDs of the dependent and dependency of every dependency, in the order of the file
+	 */
+	public int[] getDependencies() {
+		return dependencies;
+	}
+
+	/**
+	 * Reads the files given; a missing argument is read as an empty file.
+	 * @param fileTasks CSV file of the tasks, or null
+	 * @param filePeople CSV file of the people, or null
+	 * @param fileDependencies CSV file of the dependencies, or null
+	 * @return the content of the files
+	 * @throws IOException if a file cannot be read, or a record is invalid (the message gives its file and line)
+	 */
+	public static CsvProjectFile read(File fileTasks, File filePeople, File fileDependencies) throws IOException {
+		ArrayList<Task> tasks = fileTasks == null ? new ArrayList<Task>() : readRecords(fileTasks, TASK_COLUMNS, (fields, line) -> {
+			Task task = new Task(fields[1], parseDouble(fields[2], "effort", line), parseInt(fields[0], "id", line));
+			if(task.getEffortEstimate() < 0.0) throw new IOException("line " + line + ": negative effort");
+			return task;
+		});
+		ArrayList<Person> people = filePeople == null ? new ArrayList<Person>() : readRecords(filePeople, PERSON_COLUMNS, (fields, line) -> {
+			String email = fields[3].isEmpty() ? null : fields[3];
+			if(email != null && !Person.emailRegexPattern.matcher(email).find()) throw new IOException("line " + line + ": invalid email " + email);
+			return Person.restore(fields[1], fields[2], email, parseInt(fields[0], "id", line));
+		});
+		ArrayList<int[]> edges = fileDependencies == null ? new ArrayList<int[]>() : readRecords(fileDependencies, DEPENDENCY_COLUMNS,
+				(fields, line) -> new int[] {parseInt(fields[0], "task", line), parseInt(fields[1], "dependency", line)});
+		int[] dependencies = new int[edges.size() * 2];
+		for(int i = 0; i < edges.size(); i++) {
+			dependencies[2 * i] = edges.get(i)[0];
+			dependencies[2 * i + 1] = edges.get(i)[1];
+		}
+		return new CsvProjectFile(tasks, people, dependencies);
+	}
+
+	/**
+	 * Writes the tasks, the people and the dependencies between the tasks written. The records are formatted in parallel
+	 * chunks, then every file is written to a temporary file that is moved over the previous one.
+	 * @param fileTasks CSV file of the tasks
+	 * @param filePeople CSV file of the people
+	 * @param fileDependencies CSV file of the dependencies
+	 * @param tasks tasks to be written
+	 * @param people people to be written
+	 * @throws IOException if a file cannot be written
+	 */
+	public static void write(File fileTasks, File filePeople, File fileDependencies, Collection<Task> tasks, Collection<Person> people) throws IOException {
+		Task[] allTasks = tasks.toArray(new Task[tasks.size()]);
+		Person[] allPeople = people.toArray(new Person[people.size()]);
+		writeRecords(fileTasks, TASK_COLUMNS, allTasks, (t, out) -> {
+			out.append(t.getID()).append(',');
+			appendField(out, t.getName());
+			out.append(',').append(t.getEffortEstimate());
+		});
+		writeRecords(filePeople, PERSON_COLUMNS, allPeople, (p, out) -> {
+			out.append(p.getID()).append(',');
+			appendField(out, p.getFirstName());
+			out.append(',');
+			appendField(out, p.getLastName());
+			out.append(',');
+			appendField(out, p.getEmail());
+		});
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(allTasks)); // Only the dependencies between the tasks written.
+		Integer[] indexes = new Integer[allTasks.length];
+		for(int i = 0; i < indexes.length; i++) {
+			indexes[i] = i;
+		}
+		writeRecords(fileDependencies, DEPENDENCY_COLUMNS, indexes, (i, out) -> {
+			for(int k = graph.getDependenciesStart(i); k < graph.getDependenciesEnd(i); k++) {
+				if(k > graph.getDependenciesStart(i)) out.append('\n');
+				out.append(allTasks[i].getID()).append(',').append(allTasks[graph.getDependency(k)].getID());
+			}
+		});
+	}
+
+	/*
+	 * Turns the fields of a record, ordered like the expected columns, into an object.
+	 */
+	private interface RecordParser<T> {
+		T parse(String[] fields, int line) throws IOException;
+	}
+
+	/*
+	 * Appends a record to a chunk being formatted, without its line break; nothing is appended for an empty record.
+	 */
+	private interface RecordFormatter<T> {
+		void format(T record, StringBuilder out);
+	}
+
+	private static <T> ArrayList<T> readRecords(File file, String[] columns, RecordParser<T> parser) throws IOException {
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		int start = bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF ? 3 : 0; // UTF-8 BOM.
+		ArrayList<String> header = new ArrayList<String>();
+		int dataStart = parseRecord(bytes, start, bytes.length, header);
+		int[] columnIndexes = new int[columns.length];
+		for(int c = 0; c < columns.length; c++) {
+			columnIndexes[c] = -1;
+			for(int h = 0; h < header.size(); h++) {
+				String name = header.get(h).trim().toLowerCase(Locale.ROOT).replace(' ', '_');
+				if(name.equals(columns[c]) || name.equals(columns[c].replace("_", ""))) columnIndexes[c] = h;
+			}
+			if(columnIndexes[c] == -1) throw new IOException(file + ": missing column " + columns[c]);
+		}
+
+		// Splits the records into chunks, following the quotes since a quoted field may hold line breaks.
+		ArrayList<int[]> chunks = new ArrayList<int[]>(); // start, end, line of the start
+		boolean isQuoted = false;
+		int chunkStart = dataStart, chunkLine = 2, line = 2;
+		for(int i = dataStart; i < bytes.length; i++) {
+			if(bytes[i] == '"') {
+				isQuoted = !isQuoted;
+			}else if(bytes[i] == '\n') {
+				line++;
+				if(!isQuoted && i + 1 - chunkStart >= CHUNK_BYTES) {
+					chunks.add(new int[] {chunkStart, i + 1, chunkLine});
+					chunkStart = i + 1;
+					chunkLine = line;
+				}
+			}
+		}
+		if(chunkStart < bytes.length) chunks.add(new int[] {chunkStart, bytes.length, chunkLine});
+
+		ArrayList<Callable<ArrayList<T>>> parses = new ArrayList<Callable<ArrayList<T>>>(chunks.size());
+		for(int[] chunk : chunks) {
+			parses.add(() -> parseChunk(bytes, chunk[0], chunk[1], chunk[2], columnIndexes, parser));
+		}
+		ArrayList<T> records = new ArrayList<T>();
+		try {
+			for(Future<ArrayList<T>> parsed : ForkJoinPool.commonPool().invokeAll(parses)) {
+				records.addAll(parsed.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reading " + file, e);
+		} catch (ExecutionException e) {
+			throw new IOException(file + ": " + e.getCause().getMessage(), e.getCause());
+		}
+		return records;
+	}
+
+	private static <T> ArrayList<T> parseChunk(byte[] bytes, int start, int end, int line, int[] columnIndexes, RecordParser<T> parser) throws IOException {
+		ArrayList<T> records = new ArrayList<T>();
+		ArrayList<String> row = new ArrayList<String>();
+		String[] fields = new String[columnIndexes.length];
+		int at = start;
+		while(at < end) {
+			int next = parseRecord(bytes, at, end, row);
+			int recordLine = line;
+			for(int i = at; i < next; i++) {
+				if(bytes[i] == '\n') line++;
+			}
+			at = next;
+			if(row.size() == 1 && row.get(0).trim().isEmpty()) continue; // Blank line.
+			for(int c = 0; c < columnIndexes.length; c++) {
+				if(columnIndexes[c] >= row.size()) throw new IOException("line " + recordLine + ": missing fields");
+				fields[c] = row.get(columnIndexes[c]);
+			}
+			records.add(parser.parse(fields, recordLine));
+		}
+		return records;
+	}
+
+	/*
+	 * Reads the fields of the record starting at a position into a list and returns the position of the next record.
+	 */
+	private static int parseRecord(byte[] bytes, int at, int end, List<String> fields) {
+		fields.clear();
+		byte[] unquoted = null;
+		while(true) {
+			int fieldStart = at;
+			if(at < end && bytes[at] == '"') { // Quoted field, "" standing for a quote.
+				if(unquoted == null) unquoted = new byte[64];
+				int length = 0;
+				at++;
+				while(at < end) {
+					if(bytes[at] == '"') {
+						if(at + 1 < end && bytes[at + 1] == '"') {
+							at++;
+						}else{
+							at++;
+							break;
+						}
+					}
+					if(length == unquoted.length) unquoted = Arrays.copyOf(unquoted, length * 2);
+					unquoted[length++] = bytes[at++];
+				}
+				while(at < end && bytes[at] != ',' && bytes[at] != '\n' && bytes[at] != '\r') at++; // Ignores what follows the closing quote.
+				fields.add(new String(unquoted, 0, length, StandardCharsets.UTF_8));
+			}else{
+				while(at < end && bytes[at] != ',' && bytes[at] != '\n' && bytes[at] != '\r') at++;
+				fields.add(new String(bytes, fieldStart, at - fieldStart, StandardCharsets.UTF_8));
+			}
+			if(at < end && bytes[at] == ',') {
+				at++;
+				continue;
+			}
+			if(at < end && bytes[at] == '\r') at++;
+			if(at < end && bytes[at] == '\n') at++;
+			return at;
+		}
+	}
+
+	private static int parseInt(String field, String column, int line) throws IOException {
+		try {
+			return Integer.parseInt(field.trim());
+		} catch (NumberFormatException e) {
+			throw new IOException("line " + line + ": invalid " + column + " '" + field + "'");
+		}
+	}
+
+	private static double parseDouble(String field, String column, int line) throws IOException {
+		try {
+			return Double.parseDouble(field.trim());
+		} catch (NumberFormatException e) {
+			throw new IOException("line " + line + ": invalid " + column + " '" + field + "'");
+		}
+	}
+
+	private static <T> void writeRecords(File file, String[] columns, T[] records, RecordFormatter<T> formatter) throws IOException {
+		int chunkSize = Math.max(1024, records.length / (4 * ForkJoinPool.commonPool().getParallelism()) + 1);
+		ArrayList<Callable<byte[]>> formats = new ArrayList<Callable<byte[]>>();
+		for(int from = 0; from < records.length; from += chunkSize) {
+			int start = from, end = Math.min(records.length, from + chunkSize);
+			formats.add(() -> {
+				StringBuilder out = new StringBuilder((end - start) * 32);
+				for(int i = start; i < end; i++) {
+					int length = out.length();
+					formatter.format(records[i], out);
+					if(out.length() > length) out.append('\n');
+				}
+				return out.toString().getBytes(StandardCharsets.UTF_8);
+			});
+		}
+		File temporary = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+		try(OutputStream out = new FileOutputStream(temporary)) {
+			out.write((String.join(",", columns) + "\n").getBytes(StandardCharsets.UTF_8));
+			for(Future<byte[]> chunk : ForkJoinPool.commonPool().invokeAll(formats)) {
+				out.write(chunk.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			temporary.delete();
+			throw new IOException("Interrupted while writing " + file, e);
+		} catch (ExecutionException | IOException e) {
+			temporary.delete();
+			throw e instanceof IOException ? (IOException) e : new IOException(file + ": " + e.getCause(), e.getCause());
+		}
+		ProjectSaver.replace(temporary, file);
+	}
+
+	/*
+	 * Appends a field, quoted if it holds a comma, a quote or a line break; null is written as an empty field.
+	 */
+	private static void appendField(StringBuilder out, String field) {
+		if(field == null) return;
+		if(field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0 && field.indexOf('\r') < 0) {
+			out.append(field);
+			return;
+		}
+		out.append('"').append(field.replace("\"", "\"\"")).append('"');
+	}
+
+}
@@ -0,0 +1,212 @@
+package model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+
+/**
+ * Dense, int-indexed store of the dependencies between a set of tasks.
+ * The dependencies and dependents of every task are kept in compressed sparse row arrays: the neighbours of the task
+ * at index i are found between get...Start(i) and get...End(i). An open-addressing hash table of the edges answers
+ * hasDependency in O(1). Each edge costs 4 bytes per direction plus about 11 bytes in the hash table.
+ *
+ */
+public class DependencyGraph {
+
+	private static final long EMPTY = -1L;
+
+	private final int[] ids;
+	private final HashMap<Integer, Integer> indexById;
+	private final int[] dependencyCount;
+	private final int[] dependencyOffsets, dependencyTargets;
+	private final int[] dependentOffsets, dependentTargets;
+	private final long[] edges;
+	private final int edgeShift;
+
+	/**
+	 * Builds the graph of the given tasks in O(V+E). Dependencies on tasks outside the collection are counted
+	 * by getDependencyCount but not stored as edges.
+	 * @param tasks tasks whose dependencies are stored
+	 */
+	public DependencyGraph(Collection<Task> tasks) {
+		int n = tasks.size();
+		ids = new int[n];
+		indexById = new HashMap<Integer, Integer>(n * 2);
+		int i = 0;
+		for(Task t : tasks) {
+			ids[i] = t.getID();
+			indexById.put(t.getID(), i);
+			i++;
+		}
+		dependencyCount = new int[n];
+		dependencyOffsets = new int[n + 1];
+		dependentOffsets = new int[n + 1];
+		i = 0;
+		for(Task t : tasks) { // First pass: count the edges of each row.
+			dependencyCount[i] = t.getDependencies().size();
+			for(Task d : t.getDependencies()) {
+				Integer index = indexById.get(d.getID());
+				if(index != null) {
+					dependencyOffsets[i + 1]++;
+					dependentOffsets[index + 1]++;
+				}
+			}
+			i++;
+		}
+		for(i = 0; i < n; i++) {
+			dependencyOffsets[i + 1] += dependencyOffsets[i];
+			dependentOffsets[i + 1] += dependentOffsets[i];
+		}
+		int edgeCount = dependencyOffsets[n];
+		dependencyTargets = new int[edgeCount];
+		dependentTargets = new int[edgeCount];
+		int capacity = Integer.highestOneBit(Math.max(2, edgeCount + edgeCount / 3) * 2 - 1); // Load factor of at most 0.75.
+		edgeShift = 64 - Integer.numberOfTrailingZeros(capacity);
+		edges = new long[capacity];
+		Arrays.fill(edges, EMPTY);
+		int[] dependentFill = Arrays.copyOf(dependentOffsets, n);
+		i = 0;
+		for(Task t : tasks) { // Second pass: fill the rows and the edge table.
+			int position = dependencyOffsets[i];
+			for(Task d : t.getDependencies()) {
+				Integer index = indexById.get(d.getID());
+				if(index != null) {
+					dependencyTargets[position++] = index;
+					dependentTargets[dependentFill[index]++] = i;
+					addEdge(i, index);
+				}
+			}
+			i++;
+		}
+	}
+
+	/**
+	 * Returns the number of tasks in the graph.
+	 * @return number of tasks
+	 */
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * Returns the number of dependencies stored in the graph.
+	 * @return number of edges
+	 */
+	public int getEdgeCount() {
+		return dependencyTargets.length;
+	}
+
+	/**
+	 * Returns the ID of the task at the given index.
+	 * @param index index of the task
+	 * @return ID of the task
+	 */
+	public int getID(int index) {
+		return ids[index];
+	}
+
+	/**
+	 * Returns the index of the task with the given ID.
+	 * @param taskId ID of the task
+	 * @return index of the task, or -1 if the task is not in the graph
+	 */
+	public int indexOf(int taskId) {
+		Integer index = indexById.get(taskId);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Returns the number of dependencies of a task, including the ones on tasks outside the graph.
+	 * @param index index of the task
+	 * @return number of dependencies
+	 */
+	public int getDependencyCount(int index) {
+		return dependencyCount[index];
+	}
+
+	/**
+	 * Returns the position of the first dependency of a task, to be read with getDependency.
+	 * @param index index of the task
+	 * @return first position of the row
+	 */
+	public int getDependenciesStart(int index) {
+		return dependencyOffsets[index];
+	}
+
+	/**
+	 * Returns the position after the last dependency of a task.
+	 * @param index index of the task
+	 * @return end position of the row (exclusive)
+	 */
+	public int getDependenciesEnd(int index) {
+		return dependencyOffsets[index + 1];
+	}
+
+	/**
+	 * Returns the index of the dependency stored at a position.
+	 * @param position position between getDependenciesStart and getDependenciesEnd
+	 * @return index of the dependency
+	 */
+	public int getDependency(int position) {
+		return dependencyTargets[position];
+	}
+
+	/**
+	 * Returns the position of the first dependent of a task, to be read with getDependent.
+	 * @param index index of the task
+	 * @return first position of the row
+	 */
+	public int getDependentsStart(int index) {
+		return dependentOffsets[index];
+	}
+
+	/**
+	 * Returns the position after the last dependent of a task.
+	 * @param index index of the task
+	 * @return end position of the row (exclusive)
+	 */
+	public int getDependentsEnd(int index) {
+		return dependentOffsets[index + 1];
+	}
+
+	/**
+	 * Returns the index of the dependent stored at a position.
+	 * @param position position between getDependentsStart and getDependentsEnd
+	 * @return index of the dependent
+	 */
+	public int getDependent(int position) {
+		return dependentTargets[position];
+	}
+
+	/**
+	 * Checks in O(1) if a task depends on another one.
+	 * @param index index of the task
+	 * @param dependencyIndex index of the possible dependency
+	 * @return true if the task at index depends on the task at dependencyIndex, false otherwise
+	 */
+	public boolean hasDependency(int index, int dependencyIndex) {
+		long key = edgeKey(index, dependencyIndex);
+		for(int slot = slotOf(key); edges[slot] != EMPTY; slot = (slot + 1) & (edges.length - 1)) {
+			if(edges[slot] == key) { return true; }
+		}
+		return false;
+	}
+
+	private void addEdge(int index, int dependencyIndex) {
+		long key = edgeKey(index, dependencyIndex);
+		int slot = slotOf(key);
+		while(edges[slot] != EMPTY && edges[slot] != key) {
+			slot = (slot + 1) & (edges.length - 1); // Linear probing.
+		}
+		edges[slot] = key;
+	}
+
+	private static long edgeKey(int index, int dependencyIndex) {
+		return ((long) index << 32) | dependencyIndex;
+	}
+
+	private int slotOf(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> edgeShift);
+	}
+
+}
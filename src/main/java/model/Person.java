@@ -32,6 +32,21 @@ public class Person {
         }
     }
 
+    private Person(int id){
+        this.id = id;
+    }
+
+    /*
+     * Recreates a person that was saved, without validating the email again, like the JSON reader does.
+     */
+    static Person restore(String firstName, String lastName, String email, int id){
+        Person person = new Person(id);
+        person.firstName = firstName;
+        person.lastName = lastName;
+        person.email = email;
+        return person;
+    }
+
     /**
      * Returns ID assigned to the person.
      * @return ID of the person
@@ -0,0 +1,157 @@
+package model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Writes the project files. Every file is written to a temporary file in the same directory and then moved over the
+ * previous one, so a crash never leaves a half-written file. Saves can run on a background thread from a snapshot of
+ * the project, and only the latest of several pending saves is written.
+ *
+ */
+class ProjectSaver {
+
+	private final File fileTasks, filePeople, fileSnapshot;
+	private final boolean isBinarySnapshot;
+	private final TypeAdapter<Person> personAdapter;
+	private final AtomicLong latestSave = new AtomicLong();
+	private final Object fileLock = new Object(); // The temporary files are shared by all saves.
+	private ThreadPoolExecutor executor;
+
+	/**
+	 * @param fileTasks file storing the tasks
+	 * @param filePeople file storing the people
+	 * @param fileSnapshot file storing the binary snapshot
+	 * @param isBinarySnapshot whether the binary snapshot is written
+	 * @param gson Gson instance used for the people
+	 */
+	ProjectSaver(File fileTasks, File filePeople, File fileSnapshot, boolean isBinarySnapshot, Gson gson) {
+		this.fileTasks = fileTasks;
+		this.filePeople = filePeople;
+		this.fileSnapshot = fileSnapshot;
+		this.isBinarySnapshot = isBinarySnapshot;
+		this.personAdapter = gson.getAdapter(Person.class);
+	}
+
+	/**
+	 * Writes the tasks and the people on the calling thread; the pending background saves are skipped.
+	 * @param tasks tasks to be written, with their dependents
+	 * @param people people to be written
+	 * @return true if the JSON files were written, false otherwise
+	 */
+	boolean write(Collection<Task> tasks, Collection<Person> people) {
+		latestSave.incrementAndGet();
+		return writeFiles(tasks, people);
+	}
+
+	/*
+	 * The binary snapshot, if used, is written last so that it is newer than the JSON files.
+	 */
+	private boolean writeFiles(Collection<Task> tasks, Collection<Person> people) {
+		synchronized(fileLock) {
+			boolean isWritten = writeJsonArray(fileTasks, tasks, new TaskAdapter());
+			isWritten &= writeJsonArray(filePeople, people, personAdapter);
+			if(isBinarySnapshot && isWritten) {
+				try {
+					File temporary = temporaryFile(fileSnapshot);
+					BinaryProjectFile.write(temporary, tasks, people);
+					replace(temporary, fileSnapshot);
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+			return isWritten;
+		}
+	}
+
+	/**
+	 * Writes a snapshot of the project on the background thread.
+	 * The thread is not a daemon, so the application does not exit before the save ends.
+	 * @param snapshot tasks and people to be written
+	 * @param onWritten run on the background thread once the JSON files are written, unless another save started meanwhile
+	 * @return true once the JSON files are written, or if a later save replaced this one, false if they could not be written
+	 */
+	synchronized Future<Boolean> writeAsync(ProjectSnapshot snapshot, Runnable onWritten) {
+		long save = latestSave.incrementAndGet();
+		if(executor == null) {
+			executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), r -> {
+				Thread thread = new Thread(r, "Project saver");
+				thread.setDaemon(false);
+				return thread;
+			});
+			executor.allowCoreThreadTimeOut(true); // The thread ends once idle.
+		}
+		return executor.submit(() -> {
+			synchronized(fileLock) {
+				if(save < latestSave.get()) return true; // A later save writes newer data.
+				boolean isWritten = writeFiles(snapshot.getTasks(), snapshot.getPeople().values());
+				if(isWritten && save == latestSave.get()) onWritten.run();
+				return isWritten;
+			}
+		});
+	}
+
+	/*
+	 * Writes the records to a temporary file as a JSON array, one record at a time, then moves it over the file.
+	 * Returns false if the file could not be written, in which case the previous file is left as it was.
+	 */
+	private static <T> boolean writeJsonArray(File file, Iterable<T> records, TypeAdapter<T> adapter) {
+		File temporary = temporaryFile(file);
+		try(JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(temporary), StandardCharsets.UTF_8)))) {
+			writer.beginArray();
+			for(T record : records) {
+				adapter.write(writer, record);
+			}
+			writer.endArray();
+		} catch (IOException | JsonIOException e) {
+			e.printStackTrace();
+			temporary.delete();
+			return false;
+		}
+		try {
+			replace(temporary, file);
+		} catch (IOException e) {
+			e.printStackTrace();
+			temporary.delete();
+			return false;
+		}
+		return true;
+	}
+
+	private static File temporaryFile(File file) {
+		return new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+	}
+
+	/**
+	 * Moves a file over another one in a single step when the file system allows it.
+	 * @param source file to be moved
+	 * @param target file to be replaced
+	 * @throws IOException if the file cannot be moved
+	 */
+	static void replace(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+}
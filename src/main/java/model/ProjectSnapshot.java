@@ -0,0 +1,104 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copy of the tasks, people and current schedule of a TaskSchedule at one version, taken under its lock so that it can be
+ * read on any thread while the schedule keeps changing. A snapshot is taken at most once per version and shared by every
+ * reader of that version, such as the background saver and the views; a schedule job copies the tasks on its own instead.
+ * The collections cannot be modified, and neither must the tasks and people they hold.
+ *
+ */
+public class ProjectSnapshot {
+
+	private final long version;
+	private final TaskSnapshot taskSnapshot;
+	private final List<Task> tasks;
+	private final Map<Integer, Person> people;
+	private final List<Task> scheduledTasks;
+	private final Map<Integer, List<Task>> workingPeople;
+	private final ScheduleResult scheduleResult;
+
+	/*
+	 * Copies the tasks and the people. The scheduled tasks are already copies that the schedule no longer modifies, held in
+	 * unmodifiable lists, so they are shared with the schedule and the snapshots of the other versions.
+	 */
+	ProjectSnapshot(long version, Collection<Task> tasks, Collection<Person> people, List<Task> scheduledTasks,
+			Map<Integer, List<Task>> workingPeople, ScheduleResult scheduleResult) {
+		this.version = version;
+		this.taskSnapshot = new TaskSnapshot(tasks);
+		this.tasks = new AbstractList<Task>() {
+			@Override
+			public Task get(int index) {
+				return taskSnapshot.getTask(index);
+			}
+
+			@Override
+			public int size() {
+				return taskSnapshot.size();
+			}
+		};
+		HashMap<Integer, Person> personCopies = new HashMap<Integer, Person>(people.size() * 2);
+		for(Person p : people) {
+			personCopies.put(p.getID(), Person.restore(p.getFirstName(), p.getLastName(), p.getEmail(), p.getID()));
+		}
+		this.people = Collections.unmodifiableMap(personCopies);
+		this.scheduledTasks = scheduledTasks;
+		this.workingPeople = Collections.unmodifiableMap(new HashMap<Integer, List<Task>>(workingPeople));
+		this.scheduleResult = scheduleResult;
+	}
+
+	/**
+	 * Returns the version of the schedule the snapshot was taken at; every change made to the schedule increases it.
+	 * @return version of the snapshot
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Returns the copies of the unscheduled tasks, linked to each other.
+	 * @return tasks, in no particular order
+	 */
+	public List<Task> getTasks() {
+		return tasks;
+	}
+
+	/**
+	 * Returns the copies of the people by ID.
+	 * @return people
+	 */
+	public Map<Integer, Person> getPeople() {
+		return people;
+	}
+
+	/**
+	 * Returns the tasks of the current schedule, sorted by start time.
+	 * @return scheduled tasks, empty if no schedule was computed since the last change
+	 */
+	public List<Task> getScheduledTasks() {
+		return scheduledTasks;
+	}
+
+	/**
+	 * Returns the tasks of the current schedule assigned to each person, by person ID.
+	 * @return tasks assigned to each person
+	 */
+	public Map<Integer, List<Task>> getWorkingPeople() {
+		return workingPeople;
+	}
+
+	/**
+	 * Returns the outcome of the current schedule.
+	 * @return result of the schedule, or null if no schedule was computed yet
+	 */
+	public ScheduleResult getScheduleResult() {
+		return scheduleResult;
+	}
+
+}
@@ -0,0 +1,234 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Monte Carlo estimate of how late a project may end: the effort of every task is drawn from a triangular distribution
+ * (minimum, most likely, maximum) and the project is scheduled again by a ScheduleEngine, with the same people and policy,
+ * thousands of times. It reports the percentiles of the makespan and the criticality index of every task: the share of the
+ * iterations in which the task had no slack (see CriticalPath) with the durations it was given in the schedule.
+ * The iterations are split into blocks run in parallel. Each worker copies the snapshot once and reuses its engine, critical path
+ * and arrays for every iteration, so an iteration allocates nothing. Each block draws from its own generator seeded from
+ * the seed of the run, so the outcome depends on the seed only, not on the number of workers.
+ *
+ */
+public class RiskSimulation {
+
+	private static final int BLOCK_SIZE = 64; // Iterations drawn from the same generator.
+
+	private final TaskSnapshot snapshot;
+	private final ArrayList<Person> people;
+	private final SchedulingPolicy policy;
+	private final double[] minimum, likely, maximum;
+	private final double[] criticality;
+	private double[] makespans = new double[0]; // Sorted.
+	private int parallelism = Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+
+	/**
+	 * Prepares a simulation of the tasks of a snapshot, which is never modified, scheduled with the given people and policy.
+	 * Until a range is set, the effort of every task is its estimate, so every iteration gives the same schedule.
+	 * @param snapshot copy of the tasks to be scheduled
+	 * @param people people able to work on the tasks
+	 * @param policy order in which the ready tasks are started, computed from the estimates
+	 */
+	public RiskSimulation(TaskSnapshot snapshot, Collection<Person> people, SchedulingPolicy policy) {
+		this.snapshot = snapshot;
+		this.people = new ArrayList<Person>(people);
+		this.policy = policy;
+		int n = snapshot.size();
+		minimum = new double[n];
+		likely = new double[n];
+		maximum = new double[n];
+		for(int i = 0; i < n; i++) {
+			likely[i] = Math.max(0.0, snapshot.getTask(i).getEffortEstimate());
+		}
+		System.arraycopy(likely, 0, minimum, 0, n);
+		System.arraycopy(likely, 0, maximum, 0, n);
+		criticality = new double[n];
+	}
+
+	/**
+	 * Sets the range of the effort of a task.
+	 * @param taskId ID of the task
+	 * @param min smallest effort
+	 * @param mostLikely mode of the distribution, usually the estimate
+	 * @param max largest effort
+	 * @throws IllegalArgumentException if the task is not in the snapshot, or unless 0 &lt;= min &lt;= mostLikely &lt;= max
+	 */
+	public void setEffortRange(int taskId, double min, double mostLikely, double max) {
+		int index = indexOf(taskId);
+		if(!(0.0 <= min && min <= mostLikely && mostLikely <= max)) {
+			throw new IllegalArgumentException("Invalid effort range for task " + taskId + ": " + min + ", " + mostLikely + ", " + max);
+		}
+		minimum[index] = min;
+		likely[index] = mostLikely;
+		maximum[index] = max;
+	}
+
+	/**
+	 * Sets the range of the effort of every task in proportion to its estimate, which stays the most likely effort.
+	 * @param minFactor smallest effort divided by the estimate, between 0 and 1
+	 * @param maxFactor largest effort divided by the estimate, at least 1
+	 * @throws IllegalArgumentException if a factor is out of range
+	 */
+	public void setEffortRanges(double minFactor, double maxFactor) {
+		if(!(0.0 <= minFactor && minFactor <= 1.0 && maxFactor >= 1.0)) {
+			throw new IllegalArgumentException("Invalid effort factors: " + minFactor + ", " + maxFactor);
+		}
+		for(int i = 0; i < likely.length; i++) {
+			minimum[i] = likely[i] * minFactor;
+			maximum[i] = likely[i] * maxFactor;
+		}
+	}
+
+	/**
+	 * Sets the number of workers of the next runs, the parallelism of the common pool by default.
+	 * @param parallelism number of iterations run at the same time, at least 1
+	 */
+	public void setParallelism(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	/**
+	 * Schedules the project the given number of times with random efforts.
+	 * @param iterations number of schedules computed
+	 * @param seed seed of the random efforts; the same seed gives the same outcome
+	 * @return true if every schedule could be computed, false if some tasks can never be scheduled (dependency loop) or the run failed
+	 */
+	public boolean run(int iterations, long seed) {
+		makespans = new double[0];
+		Arrays.fill(criticality, 0.0);
+		if(iterations <= 0) {
+			return false;
+		}
+		double[] results = new double[iterations];
+		AtomicInteger nextBlock = new AtomicInteger();
+		ArrayList<Callable<int[]>> workers = new ArrayList<Callable<int[]>>();
+		for(int w = 0; w < Math.min(parallelism, (iterations + BLOCK_SIZE - 1) / BLOCK_SIZE); w++) {
+			workers.add(() -> simulateBlocks(nextBlock, iterations, seed, results));
+		}
+		int[] criticalCount = new int[snapshot.size()];
+		try {
+			List<Future<int[]>> counts = ForkJoinPool.commonPool().invokeAll(workers);
+			for(Future<int[]> count : counts) {
+				int[] c = count.get();
+				if(c == null) { return false; } // Same structure in every iteration, so no iteration can be scheduled.
+				for(int i = 0; i < c.length; i++) {
+					criticalCount[i] += c[i];
+				}
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			e.printStackTrace();
+			return false;
+		}
+		for(int i = 0; i < criticality.length; i++) {
+			criticality[i] = (double) criticalCount[i] / iterations;
+		}
+		Arrays.sort(results);
+		makespans = results;
+		return true;
+	}
+
+	/*
+	 * Runs the blocks of iterations left until there are none, and returns how many times each task was critical,
+	 * or null if a schedule could not be computed.
+	 */
+	private int[] simulateBlocks(AtomicInteger nextBlock, int iterations, long seed, double[] results) {
+		int n = snapshot.size();
+		ScheduleEngine engine = new ScheduleEngine(new TaskSnapshot(snapshot), people, policy);
+		CriticalPath cpm = new CriticalPath(snapshot.getGraph());
+		double[] efforts = new double[n], durations = new double[n];
+		int[] criticalCount = new int[n];
+		for(int block = nextBlock.getAndIncrement(); (long) block * BLOCK_SIZE < iterations; block = nextBlock.getAndIncrement()) {
+			SplittableRandom random = new SplittableRandom(seed + block);
+			for(int iteration = block * BLOCK_SIZE; iteration < Math.min(iterations, (block + 1) * BLOCK_SIZE); iteration++) {
+				for(int i = 0; i < n; i++) {
+					efforts[i] = triangular(minimum[i], likely[i], maximum[i], random.nextDouble());
+				}
+				results[iteration] = engine.sample(efforts);
+				if(results[iteration] < 0.0) { return null; }
+				for(int i = 0; i < n; i++) {
+					durations[i] = engine.getTimeEnd(i) - engine.getTimeStart(i);
+				}
+				cpm.analyse(durations);
+				for(int i = 0; i < n; i++) {
+					if(cpm.isCritical(i)) { criticalCount[i]++; }
+				}
+			}
+		}
+		return criticalCount;
+	}
+
+	/*
+	 * Inverse of the cumulative distribution function of the triangular distribution, at u between 0 and 1.
+	 */
+	private static double triangular(double min, double mode, double max, double u) {
+		double range = max - min;
+		if(range <= 0.0) { return mode; }
+		if(u < (mode - min) / range) {
+			return min + Math.sqrt(u * range * (mode - min));
+		}
+		return max - Math.sqrt((1.0 - u) * range * (max - mode));
+	}
+
+	/**
+	 * Returns the number of iterations of the last run.
+	 * @return number of makespans computed, 0 if the last run failed
+	 */
+	public int getIterations() {
+		return makespans.length;
+	}
+
+	/**
+	 * Returns the makespan that the given share of the iterations did not exceed (nearest rank), for example 80 for P80.
+	 * @param percent percentile, between 0 and 100
+	 * @return makespan at the percentile, or NaN if the last run failed
+	 */
+	public double getMakespanPercentile(double percent) {
+		if(makespans.length == 0) {
+			return Double.NaN;
+		}
+		int rank = (int) Math.ceil(percent / 100.0 * makespans.length);
+		return makespans[Math.min(makespans.length, Math.max(1, rank)) - 1];
+	}
+
+	/**
+	 * Returns the average makespan of the last run.
+	 * @return mean makespan, or NaN if the last run failed
+	 */
+	public double getMeanMakespan() {
+		double sum = 0.0;
+		for(double m : makespans) {
+			sum += m;
+		}
+		return makespans.length == 0 ? Double.NaN : sum / makespans.length;
+	}
+
+	/**
+	 * Returns the share of the iterations of the last run in which a task was critical.
+	 * @param taskId ID of the task
+	 * @return criticality index, between 0 and 1
+	 * @throws IllegalArgumentException if the task is not in the snapshot
+	 */
+	public double getCriticalityIndex(int taskId) {
+		return criticality[indexOf(taskId)];
+	}
+
+	private int indexOf(int taskId) {
+		int index = snapshot.indexOf(taskId);
+		if(index == -1) {
+			throw new IllegalArgumentException("No task with ID " + taskId);
+		}
+		return index;
+	}
+
+}
@@ -0,0 +1,183 @@
+package model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the results of previous schedules under a key computed from everything a schedule depends on: the ID, effort and
+ * dependencies of every task and the IDs of the people, with the policy used. The same inputs always give the same key,
+ * whatever the order of the tasks, so a change that is undone, or a scenario shown again, finds its schedule already computed.
+ * The most recently used results are kept in memory; they can also be written to a directory, one file per key,
+ * to be found again by later sessions.
+ *
+ */
+class ScheduleCache {
+
+	private static final int FILE_VERSION = 2; // Increased whenever the engine would compute other results for the same key.
+
+	private final LinkedHashMap<String, ScheduleResult> results;
+	private final File directory;
+
+	/**
+	 * @param capacity maximum number of results kept in memory, the least recently used being dropped first
+	 * @param directory directory where the results are also written, or null to keep them in memory only
+	 */
+	ScheduleCache(int capacity, File directory) {
+		this.directory = directory;
+		this.results = new LinkedHashMap<String, ScheduleResult>(16, 0.75f, true) { // In access order.
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ScheduleResult> eldest) {
+				return size() > capacity;
+			}
+		};
+		if(directory != null) directory.mkdirs();
+	}
+
+	/**
+	 * Computes the key of the inputs of a schedule: a SHA-256 digest of the people IDs in ascending order, and of the tasks
+	 * in ascending ID order with their effort and the IDs of their dependencies in ascending order.
+	 * @param tasks tasks to be scheduled
+	 * @param people people able to work on the tasks
+	 * @return key, as 64 hexadecimal digits
+	 */
+	static String keyOf(Collection<Task> tasks, Collection<Person> people) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e); // Every Java platform provides SHA-256.
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+		int[] personIds = new int[people.size()];
+		int i = 0;
+		for(Person p : people) {
+			personIds[i++] = p.getID();
+		}
+		Arrays.sort(personIds);
+		buffer.putInt(personIds.length);
+		for(int id : personIds) {
+			buffer = flushIfFull(digest, buffer, 4);
+			buffer.putInt(id);
+		}
+		Task[] sorted = tasks.toArray(new Task[tasks.size()]);
+		Arrays.sort(sorted, Comparator.comparingInt(Task::getID));
+		buffer = flushIfFull(digest, buffer, 4);
+		buffer.putInt(sorted.length);
+		int[] dependencyIds = new int[0];
+		for(Task t : sorted) {
+			int count = t.getDependencies().size();
+			if(dependencyIds.length < count) dependencyIds = new int[Math.max(count, dependencyIds.length * 2)];
+			for(int k = 0; k < count; k++) {
+				dependencyIds[k] = t.getDependencies().get(k).getID();
+			}
+			Arrays.sort(dependencyIds, 0, count);
+			buffer = flushIfFull(digest, buffer, 16);
+			buffer.putInt(t.getID());
+			buffer.putDouble(t.getEffortEstimate());
+			buffer.putInt(count);
+			for(int k = 0; k < count; k++) {
+				buffer = flushIfFull(digest, buffer, 4);
+				buffer.putInt(dependencyIds[k]);
+			}
+		}
+		buffer.flip();
+		digest.update(buffer);
+		StringBuilder key = new StringBuilder(64);
+		for(byte b : digest.digest()) {
+			key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return key.toString();
+	}
+
+	private static ByteBuffer flushIfFull(MessageDigest digest, ByteBuffer buffer, int needed) {
+		if(buffer.remaining() >= needed) return buffer;
+		buffer.flip();
+		digest.update(buffer);
+		buffer.clear();
+		return buffer;
+	}
+
+	/**
+	 * Returns the result of a schedule of the given inputs with a policy, from memory or else from the directory.
+	 * @param key key of the inputs computed by keyOf
+	 * @param policy policy of the schedule
+	 * @return result, or null if no such schedule was stored
+	 */
+	synchronized ScheduleResult get(String key, SchedulingPolicy policy) {
+		String name = key + "-" + policy.name();
+		ScheduleResult result = results.get(name);
+		if(result == null && directory != null) {
+			result = readResult(fileOf(name));
+			if(result != null) results.put(name, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Stores the result of a schedule of the given inputs with a policy, in memory and in the directory if there is one.
+	 * @param key key of the inputs computed by keyOf
+	 * @param policy policy of the schedule
+	 * @param result result of the schedule
+	 */
+	synchronized void put(String key, SchedulingPolicy policy, ScheduleResult result) {
+		String name = key + "-" + policy.name();
+		results.put(name, result);
+		if(directory != null) writeResult(fileOf(name), result);
+	}
+
+	/**
+	 * Returns the number of results kept in memory.
+	 * @return number of results
+	 */
+	synchronized int size() {
+		return results.size();
+	}
+
+	private File fileOf(String name) {
+		return new File(directory, name + ".schedule");
+	}
+
+	/*
+	 * A file that cannot be read is ignored: the schedule is computed again and the file replaced.
+	 */
+	private static ScheduleResult readResult(File file) {
+		if(!file.isFile()) return null;
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if(in.readInt() != FILE_VERSION) return null;
+			return ScheduleResult.read(in);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	private static void writeResult(File file, ScheduleResult result) {
+		File temporary = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+		try {
+			try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+				out.writeInt(FILE_VERSION);
+				result.write(out);
+			}
+			ProjectSaver.replace(temporary, file);
+		} catch (IOException e) {
+			e.printStackTrace(); // The result is still kept in memory.
+			temporary.delete();
+		}
+	}
+
+}
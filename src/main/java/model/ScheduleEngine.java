@@ -0,0 +1,518 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+
+/**
+ * Discrete-event scheduler: instead of advancing time one unit at a time, it jumps straight
+ * to the next task completion held in a completion-time priority queue.
+ * It makes the same assignments as the original time-step loop. At every instant the tasks ending then and the ready
+ * tasks are taken together in the order of a SchedulingPolicy (smallest effort by default): a task ending releases its people
+ * and makes its dependents ready, which are taken in the same sweep, and a ready task gets the first idle person, if any.
+ * So a ready task taken before a task ending at the same instant does not get the person released, and waits.
+ * The people left idle are shared out in a circular approach between the tasks started at that instant; if none started,
+ * they stay idle until the next time unit, when the tasks still ready are taken again.
+ * The idle people are kept in a queue by index and the people working on each task in a list threaded through an array,
+ * so assigning or releasing a person costs O(log P) instead of a scan of all the people.
+ * A task becomes ready once, when its counter of remaining dependencies reaches zero (Kahn's algorithm);
+ * the queue holds the rank of the task in the order of the policy, computed once, so it compares primitive ints.
+ * Only the counters change while scheduling: the dependency lists, of the copies as of the originals, are never modified.
+ * The state of a run is held in arrays allocated once, so sample() can run the same project again and again with other efforts
+ * without allocating anything, for example in a RiskSimulation.
+ *
+ */
+public class ScheduleEngine {
+
+	/**
+	 * Follows the progress of a run and can stop it.
+	 */
+	public interface Monitor {
+		/**
+		 * Called regularly while tasks are being started, and once at the end of a complete run.
+		 * @param scheduled number of tasks started so far
+		 * @param total number of tasks to schedule
+		 * @return true to go on, false to stop the run, which then returns false
+		 */
+		boolean progress(int scheduled, int total);
+	}
+
+	private static final int MONITOR_INTERVAL = 256; // Completion instants between two calls to the monitor.
+
+	private final TaskSnapshot snapshot;
+	private final DependencyGraph graph;
+	private final Task[] tasks;
+	private final Person[] people;
+	private final double[] priority;
+	private final double[] estimates;
+	private double[] effort; // Efforts of the current run: the estimates, or the ones given to sample().
+	private final int[] remainingDependencies;
+	private final int[] headcount;
+	private final double[] timeReady, timeStart, timeEnd;
+	private final boolean[] frozen;
+	private final IntHeap idlePeople; // By index, so the person with the smallest ID is picked first.
+	private final int[] firstAssignee; // Per task, first person working on it or -1; the others follow in nextAssignee.
+	private final int[] nextAssignee; // Per person, next person working on the same task or -1.
+
+	private final int[] rank, taskAtRank; // Position of each task in the order of the policy, and the reverse.
+	private final IntHeap readyTasks; // Ranks of the ready tasks, and of the tasks ending at the current instant.
+	private int endingCount; // Tasks ending at the current instant still in readyTasks.
+	private final IntHeap completions; // Started tasks, by end time.
+	private final int[] started; // Tasks started at the current instant.
+	private final int[] waiting; // Ready tasks taken at the current instant while nobody was idle.
+	private int startedCount;
+
+	private final ArrayList<Task> scheduledTasks;
+	private final HashMap<Integer, ArrayList<Task>> assignedTasks;
+	private boolean isRecording; // False while sampling: only the arrays are written.
+	private Monitor monitor;
+
+	/**
+	 * Prepares the engine for the tasks of a snapshot and the given people, starting the ready tasks by smallest effort.
+	 * The start time and reduction of the copied tasks are overwritten by run(); the original tasks are never modified.
+	 * @param snapshot copy of the tasks to be scheduled
+	 * @param people people able to work on the tasks
+	 */
+	public ScheduleEngine(TaskSnapshot snapshot, Collection<Person> people) {
+		this(snapshot, people, SchedulingPolicy.SMALLEST_EFFORT);
+	}
+
+	/**
+	 * Prepares the engine for the tasks of a snapshot and the given people, starting the ready tasks in the order of a policy.
+	 * The engine only writes to the copies of its own snapshot, so engines working on different snapshots can run in parallel.
+	 * @param snapshot copy of the tasks to be scheduled
+	 * @param people people able to work on the tasks
+	 * @param policy order in which the ready tasks are started
+	 */
+	public ScheduleEngine(TaskSnapshot snapshot, Collection<Person> people, SchedulingPolicy policy) {
+		this.snapshot = snapshot;
+		this.priority = policy.priorities(snapshot);
+		this.graph = snapshot.getGraph();
+		this.tasks = new Task[snapshot.size()];
+		this.people = people.toArray(new Person[people.size()]);
+		Arrays.sort(this.people, Comparator.comparingInt(Person::getID)); // People are picked by ascending ID.
+
+		remainingDependencies = new int[this.tasks.length];
+		estimates = new double[this.tasks.length];
+		for(int i = 0; i < this.tasks.length; i++) {
+			this.tasks[i] = snapshot.getTask(i);
+			estimates[i] = this.tasks[i].getEffortEstimate();
+		}
+		effort = estimates;
+
+		headcount = new int[this.tasks.length];
+		timeReady = new double[this.tasks.length];
+		timeStart = new double[this.tasks.length];
+		timeEnd = new double[this.tasks.length];
+		frozen = new boolean[this.tasks.length];
+		idlePeople = new IntHeap(this.people.length, null);
+		firstAssignee = new int[this.tasks.length];
+		Arrays.fill(firstAssignee, -1);
+		nextAssignee = new int[this.people.length];
+		Integer[] order = new Integer[this.tasks.length];
+		for(int i = 0; i < order.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> compareReady(a, b));
+		rank = new int[this.tasks.length];
+		taskAtRank = new int[this.tasks.length];
+		for(int k = 0; k < order.length; k++) {
+			rank[order[k]] = k;
+			taskAtRank[k] = order[k];
+		}
+		readyTasks = new IntHeap(this.tasks.length, null);
+		completions = new IntHeap(this.tasks.length, timeEnd);
+		started = new int[this.tasks.length];
+		waiting = new int[this.tasks.length];
+		scheduledTasks = new ArrayList<Task>(this.tasks.length);
+		assignedTasks = new HashMap<Integer, ArrayList<Task>>();
+		for(Person p : this.people) {
+			assignedTasks.put(p.getID(), new ArrayList<Task>());
+		}
+	}
+
+	/**
+	 * Sets the monitor told about the progress of the next runs.
+	 * @param monitor monitor of the runs, or null
+	 */
+	public void setMonitor(Monitor monitor) {
+		this.monitor = monitor;
+	}
+
+	/**
+	 * Runs the simulation from time 0 until every task is completed.
+	 * @return true if every task could be scheduled, false if some tasks never became ready (dependency loop) or nobody can work on them
+	 */
+	public boolean run() {
+		reset(estimates, true);
+		for(int i = 0; i < tasks.length; i++) {
+			tasks[i].setTimeStart(-1);
+			tasks[i].setReduction(1.0);
+			if(remainingDependencies[i] == 0) { readyTasks.add(rank[i]); }
+		}
+		for(int p = 0; p < people.length; p++) {
+			idlePeople.add(p);
+		}
+		return simulate(0.0);
+	}
+
+	/**
+	 * Runs the simulation from time 0 with other efforts, keeping only the start and end time of every task (see getTimeEnd).
+	 * The ready tasks are still taken in the order the policy gave them from the estimates, as a planner not knowing the actual efforts would.
+	 * Neither the copied tasks nor the lists returned by getScheduledTasks() and getAssignedTasks() are written, and nothing is allocated.
+	 * @param sampledEfforts effort of every task, indexed like the snapshot; only read during the call
+	 * @return time at which the last task ends, or -1 if some tasks could not be scheduled
+	 */
+	public double sample(double[] sampledEfforts) {
+		reset(sampledEfforts, false);
+		for(int i = 0; i < tasks.length; i++) {
+			if(remainingDependencies[i] == 0) { readyTasks.add(rank[i]); }
+		}
+		for(int p = 0; p < people.length; p++) {
+			idlePeople.add(p);
+		}
+		if(!simulate(0.0)) { return -1.0; }
+		double makespan = 0.0;
+		for(int i = 0; i < tasks.length; i++) {
+			makespan = Math.max(makespan, timeEnd[i]);
+		}
+		return makespan;
+	}
+
+	/**
+	 * Runs the simulation from a given time, keeping every task that started before it in a previous schedule as it was.
+	 * Nothing that happened before that time is recomputed, so the cost is proportional to the part of the schedule after it.
+	 * The outcome is the same as run() provided no task that changed since the previous schedule could have been ready before that time.
+	 * @param previous schedule computed before the changes
+	 * @param from time from which the schedule is recomputed
+	 * @return true if every task could be scheduled, false otherwise
+	 */
+	public boolean resume(ScheduleResult previous, double from) {
+		reset(estimates, true);
+		for(int i = 0; i < tasks.length; i++) {
+			tasks[i].setTimeStart(-1);
+			tasks[i].setReduction(1.0);
+		}
+		for(int position = 0; position < previous.size(); position++) { // Keep the tasks started before the given time.
+			int id = previous.getTaskID(position);
+			if(previous.getTimeStart(id) >= from) { break; }
+			int index = snapshot.indexOf(id);
+			if(index == -1) { continue; }
+			frozen[index] = true;
+			tasks[index].setTimeStart(previous.getTimeStart(id));
+			tasks[index].setReduction(previous.getReduction(id));
+			headcount[index] = previous.getHeadcount(id);
+			timeReady[index] = previous.getTimeReady(id);
+			timeStart[index] = previous.getTimeStart(id);
+			timeEnd[index] = previous.getTimeEnd(id);
+			scheduledTasks.add(tasks[index]);
+			startedCount++;
+		}
+		for(int p = 0; p < people.length; p++) { // Keep their assignments, and the people still working on them stay busy.
+			int[] assigned = previous.getAssignedTaskIDs(people[p].getID());
+			boolean isBusy = false;
+			for(int id : assigned == null ? new int[0] : assigned) {
+				int index = snapshot.indexOf(id);
+				if(index == -1 || !frozen[index]) { continue; }
+				assignedTasks.get(people[p].getID()).add(tasks[index]);
+				if(timeEnd[index] >= from && !isBusy) {
+					nextAssignee[p] = firstAssignee[index];
+					firstAssignee[index] = p;
+					isBusy = true;
+				}
+			}
+			if(!isBusy) { idlePeople.add(p); }
+		}
+		for(int i = 0; i < tasks.length; i++) {
+			if(!frozen[i]) { continue; }
+			if(timeEnd[i] >= from) {
+				completions.add(i);
+			}else{
+				for(int k = graph.getDependentsStart(i); k < graph.getDependentsEnd(i); k++) {
+					int d = graph.getDependent(k);
+					remainingDependencies[d]--;
+					timeReady[d] = Math.max(timeReady[d], timeEnd[i]);
+				}
+			}
+		}
+		for(int i = 0; i < tasks.length; i++) {
+			if(!frozen[i] && remainingDependencies[i] == 0) { readyTasks.add(rank[i]); }
+		}
+		return simulate(from);
+	}
+
+	/*
+	 * Clears the state of the previous run, without allocating anything.
+	 */
+	private void reset(double[] efforts, boolean isRecording) {
+		this.effort = efforts;
+		this.isRecording = isRecording;
+		for(int i = 0; i < tasks.length; i++) {
+			remainingDependencies[i] = snapshot.getDependencyCount(i); // A dependency outside the schedule is never completed, so the task never becomes ready.
+		}
+		Arrays.fill(headcount, 0);
+		Arrays.fill(timeReady, 0.0);
+		Arrays.fill(timeStart, -1.0);
+		Arrays.fill(timeEnd, 0.0);
+		Arrays.fill(frozen, false);
+		Arrays.fill(firstAssignee, -1);
+		idlePeople.clear();
+		readyTasks.clear();
+		completions.clear();
+		endingCount = 0;
+		startedCount = 0;
+		if(isRecording) {
+			scheduledTasks.clear();
+			for(ArrayList<Task> assigned : assignedTasks.values()) {
+				assigned.clear();
+			}
+		}
+	}
+
+	/*
+	 * Processes the completions and dispatches the ready tasks, jumping from one completion time to the next,
+	 * or to the next time unit if people are left idle while tasks are ready.
+	 */
+	private boolean simulate(double time) {
+		int instants = 0;
+		while(true) {
+			while(!completions.isEmpty() && timeEnd[completions.peek()] == time) {
+				readyTasks.add(rank[completions.poll()]); // Taken with the ready tasks, in the order of the policy.
+				endingCount++;
+			}
+			boolean isIdleWhileReady = dispatch(time);
+			double next = completions.isEmpty() ? Double.POSITIVE_INFINITY : timeEnd[completions.peek()];
+			if(isIdleWhileReady) { next = Math.min(next, time + 1.0); }
+			if(next == Double.POSITIVE_INFINITY) { break; }
+			time = next; // Jump to the next completion.
+			if(monitor != null && ++instants % MONITOR_INTERVAL == 0 && !monitor.progress(startedCount, tasks.length)) {
+				return false; // Stopped.
+			}
+		}
+		if(monitor != null) { monitor.progress(startedCount, tasks.length); }
+		return startedCount == tasks.length;
+	}
+
+	/*
+	 * Takes the tasks ending now and the ready tasks in the order of the policy: ends the former and starts the latter while
+	 * people are idle, then shares the people still idle between the tasks started now.
+	 * Returns true if people are left idle while tasks are ready, which happens when nobody was idle as they were taken.
+	 */
+	private boolean dispatch(double time) {
+		int count = 0, waitingCount = 0;
+		while(!readyTasks.isEmpty() && (endingCount > 0 || !idlePeople.isEmpty())) {
+			int task = taskAtRank[readyTasks.poll()];
+			if(timeStart[task] >= 0.0) { // Started before, so it ends now.
+				endingCount--;
+				complete(task, time);
+			}else if(idlePeople.isEmpty()) {
+				waiting[waitingCount++] = task;
+			}else{
+				assign(idlePeople.poll(), task);
+				timeStart[task] = time;
+				if(isRecording) {
+					tasks[task].setTimeStart(time);
+					scheduledTasks.add(tasks[task]);
+				}
+				started[count++] = task;
+			}
+		}
+		for(int k = 0; k < waitingCount; k++) {
+			readyTasks.add(rank[waiting[k]]);
+		}
+		if(count == 0) { return !idlePeople.isEmpty() && !readyTasks.isEmpty(); }
+		startedCount += count;
+		int indexTask = 0;
+		while(!idlePeople.isEmpty()) {
+			assign(idlePeople.poll(), started[indexTask]);
+			indexTask++;
+			if(indexTask >= count) { indexTask = 0; }// Try to attribute the people remaining to the tasks in a circular approach.
+		}
+		for(int k = 0; k < count; k++) {
+			int task = started[k];
+			double reduction = reductionFor(headcount[task]); // Add workload reduction if more people work on the same task.
+			if(isRecording) { tasks[task].setReduction(reduction); }
+			double duration = Math.max(1.0, Math.ceil(effort[task] * reduction)); // Completion is observed on whole time units, at least one after the start.
+			timeEnd[task] = time + duration;
+			completions.add(task);
+		}
+		return false;
+	}
+
+	/*
+	 * Releases the people working on a completed task and makes its dependents ready once all their dependencies are completed.
+	 */
+	private void complete(int task, double time) {
+		for(int p = firstAssignee[task]; p != -1; p = nextAssignee[p]) {
+			idlePeople.add(p);
+		}
+		firstAssignee[task] = -1;
+		for(int k = graph.getDependentsStart(task); k < graph.getDependentsEnd(task); k++) {
+			int d = graph.getDependent(k);
+			if(--remainingDependencies[d] == 0 && !frozen[d]) {
+				timeReady[d] = time;
+				readyTasks.add(rank[d]);
+			}
+		}
+	}
+
+	private void assign(int person, int task) {
+		nextAssignee[person] = firstAssignee[task];
+		firstAssignee[task] = person;
+		if(isRecording) { assignedTasks.get(people[person].getID()).add(tasks[task]); }
+		headcount[task]++;
+	}
+
+	/*
+	 * Orders the tasks by the priority of the policy; ties go to the smallest ID.
+	 */
+	private int compareReady(int a, int b) {
+		int cmp = Double.compare(priority[a], priority[b]);
+		return cmp != 0 ? cmp : Integer.compare(tasks[a].getID(), tasks[b].getID());
+	}
+
+	/**
+	 * Returns the time at which a task started in the last run or sample.
+	 * @param index index of the task in the snapshot
+	 * @return start time, or -1 if the task was not started
+	 */
+	public double getTimeStart(int index) {
+		return timeStart[index];
+	}
+
+	/**
+	 * Returns the time at which a task ended in the last run or sample.
+	 * @param index index of the task in the snapshot, started in that run
+	 * @return end time
+	 */
+	public double getTimeEnd(int index) {
+		return timeEnd[index];
+	}
+
+	/**
+	 * Returns the scheduled tasks in the order they were started.
+	 * @return ArrayList of scheduled tasks
+	 */
+	public ArrayList<Task> getScheduledTasks() {
+		return scheduledTasks;
+	}
+
+	/**
+	 * Returns the tasks each person worked on, where <k,v> is <Person.ID, tasks in the order they were assigned>.
+	 * @return HashMap of ArrayList of tasks per person
+	 */
+	public HashMap<Integer, ArrayList<Task>> getAssignedTasks() {
+		return assignedTasks;
+	}
+
+	/**
+	 * Returns the outcome of the last run by task and person ID.
+	 * @return result of the schedule
+	 */
+	public ScheduleResult getResult() {
+		int n = scheduledTasks.size();
+		int[] ids = new int[n];
+		double[] ready = new double[n], start = new double[n], end = new double[n], reduction = new double[n];
+		int[] count = new int[n];
+		for(int position = 0; position < n; position++) {
+			Task t = scheduledTasks.get(position);
+			int i = snapshot.indexOf(t.getID());
+			ids[position] = t.getID();
+			ready[position] = timeReady[i];
+			start[position] = t.getTimeStart();
+			end[position] = timeEnd[i];
+			reduction[position] = t.getReduction();
+			count[position] = headcount[i];
+		}
+		HashMap<Integer, int[]> assigned = new HashMap<Integer, int[]>();
+		for(Person p : people) {
+			ArrayList<Task> list = assignedTasks.get(p.getID());
+			int[] taskIds = new int[list.size()];
+			for(int j = 0; j < taskIds.length; j++) {
+				taskIds[j] = list.get(j).getID();
+			}
+			assigned.put(p.getID(), taskIds);
+		}
+		return new ScheduleResult(ids, ready, start, end, reduction, count, assigned);
+	}
+
+	/**
+	 * Returns the reduction coefficient calculated based on the number of employees working on the same task.
+	 * @param numberEmployees number of people working on the task
+	 * @return reduction coefficient
+	 */
+	public static double reductionFor(int numberEmployees) {
+		if(numberEmployees > 1 && numberEmployees <= 5) {
+			return 0.8;
+		}
+		else if(numberEmployees > 5 && numberEmployees <= 10) {
+			return 0.75;
+		}
+		else if(numberEmployees > 10 && numberEmployees <= 20) {
+			return 0.7;
+		}
+		else {
+			return 1.0;
+		}
+	}
+
+	/*
+	 * Binary min-heap of ints between 0 and a capacity given up front, each added at most once at a time.
+	 * The ints are compared by themselves, or by their key if keys are given; a key must not change while its int is in the heap.
+	 */
+	private static final class IntHeap {
+
+		private final int[] heap;
+		private final double[] keys;
+		private int size;
+
+		IntHeap(int capacity, double[] keys) {
+			heap = new int[capacity];
+			this.keys = keys;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void clear() {
+			size = 0;
+		}
+
+		int peek() {
+			return heap[0];
+		}
+
+		void add(int value) {
+			int i = size++;
+			while(i > 0 && isLess(value, heap[(i - 1) / 2])) { // Sift up.
+				heap[i] = heap[(i - 1) / 2];
+				i = (i - 1) / 2;
+			}
+			heap[i] = value;
+		}
+
+		int poll() {
+			int min = heap[0];
+			int last = heap[--size];
+			int i = 0;
+			while(2 * i + 1 < size) { // Sift down.
+				int child = 2 * i + 1;
+				if(child + 1 < size && isLess(heap[child + 1], heap[child])) { child++; }
+				if(!isLess(heap[child], last)) { break; }
+				heap[i] = heap[child];
+				i = child;
+			}
+			heap[i] = last;
+			return min;
+		}
+
+		private boolean isLess(int a, int b) {
+			return keys == null ? a < b : keys[a] < keys[b];
+		}
+
+	}
+
+}
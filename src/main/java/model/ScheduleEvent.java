@@ -0,0 +1,134 @@
+package model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * Changes made to a TaskSchedule since its listeners were last told, coalesced into one event: a task added and then
+ * changed is only reported as added, a task added and then removed is reported as removed, and after a reset the
+ * listeners read the whole schedule again, so no other change is reported. A listener applies the removals before
+ * the additions. The event is not modified once it is delivered.
+ *
+ */
+public class ScheduleEvent {
+
+	private final LinkedHashMap<Integer, Task> addedTasks = new LinkedHashMap<Integer, Task>();
+	private final HashSet<Integer> removedTaskIds = new HashSet<Integer>();
+	private final HashSet<Integer> changedTaskIds = new HashSet<Integer>();
+	private final LinkedHashMap<Integer, Person> addedPeople = new LinkedHashMap<Integer, Person>();
+	private final HashSet<Integer> removedPersonIds = new HashSet<Integer>();
+	private boolean isReset;
+	private boolean isScheduleChanged;
+
+	/*
+	 * Filled by TaskSchedule under its lock until it is delivered.
+	 */
+	ScheduleEvent() {
+	}
+
+	void taskAdded(Task task) {
+		if(!isReset) addedTasks.put(task.getID(), task);
+	}
+
+	void taskRemoved(int taskId) {
+		if(isReset) return;
+		addedTasks.remove(taskId);
+		changedTaskIds.remove(taskId);
+		removedTaskIds.add(taskId);
+	}
+
+	void taskChanged(int taskId) {
+		if(!isReset && !addedTasks.containsKey(taskId)) changedTaskIds.add(taskId);
+	}
+
+	void personAdded(Person person) {
+		if(!isReset) addedPeople.put(person.getID(), person);
+	}
+
+	void personRemoved(int personId) {
+		if(isReset) return;
+		addedPeople.remove(personId);
+		removedPersonIds.add(personId);
+	}
+
+	void reset() {
+		isReset = true;
+		addedTasks.clear();
+		removedTaskIds.clear();
+		changedTaskIds.clear();
+		addedPeople.clear();
+		removedPersonIds.clear();
+	}
+
+	void scheduleChanged() {
+		isScheduleChanged = true;
+	}
+
+	/**
+	 * Checks if the tasks and the people were replaced as a whole, for example when the project was loaded.
+	 * @return true if the listeners must read every task and person again, false if the other methods describe the changes
+	 */
+	public boolean isReset() {
+		return isReset;
+	}
+
+	/**
+	 * Checks if a new schedule was published, or the current one dropped by a reset.
+	 * @return true if the scheduled tasks and the people working on them changed, false otherwise
+	 */
+	public boolean isScheduleChanged() {
+		return isScheduleChanged;
+	}
+
+	/**
+	 * Checks if tasks were added or removed.
+	 * @return true if getAddedTasks() or getRemovedTaskIds() is not empty, or on a reset
+	 */
+	public boolean isTaskListChanged() {
+		return isReset || !addedTasks.isEmpty() || !removedTaskIds.isEmpty();
+	}
+
+	/**
+	 * Returns the tasks added, in the order they were added.
+	 * @return tasks added
+	 */
+	public Collection<Task> getAddedTasks() {
+		return Collections.unmodifiableCollection(addedTasks.values());
+	}
+
+	/**
+	 * Returns the IDs of the tasks removed.
+	 * @return IDs of the tasks removed
+	 */
+	public Set<Integer> getRemovedTaskIds() {
+		return Collections.unmodifiableSet(removedTaskIds);
+	}
+
+	/**
+	 * Returns the IDs of the tasks whose effort, dependencies or dependents changed, except the ones added.
+	 * @return IDs of the tasks changed
+	 */
+	public Set<Integer> getChangedTaskIds() {
+		return Collections.unmodifiableSet(changedTaskIds);
+	}
+
+	/**
+	 * Returns the people added, in the order they were added.
+	 * @return people added
+	 */
+	public Collection<Person> getAddedPeople() {
+		return Collections.unmodifiableCollection(addedPeople.values());
+	}
+
+	/**
+	 * Returns the IDs of the people removed.
+	 * @return IDs of the people removed
+	 */
+	public Set<Integer> getRemovedPersonIds() {
+		return Collections.unmodifiableSet(removedPersonIds);
+	}
+
+}
@@ -0,0 +1,89 @@
+package model;
+
+import java.util.ArrayList;
+
+/**
+ * Schedule to be computed on another thread than the one using the TaskSchedule. It is created by
+ * TaskSchedule.prepareSchedule with a copy of the tasks, which its engine writes to, so that run can be called once
+ * on any thread while the tasks are being edited, and its outcome is published by TaskSchedule.publishSchedule.
+ *
+ */
+public class ScheduleJob {
+
+	private final long version;
+	private final TaskSnapshot tasks;
+	private final ArrayList<Person> people;
+	private final ScheduleResult previous, cached;
+	private final double from;
+	private final String key;
+	private ScheduleEngine engine;
+	private boolean isScheduled;
+
+	/*
+	 * previous and from are those of ScheduleEngine.resume, previous being null to run from time 0; cached is the result
+	 * found in the cache for the same inputs, if any, in which case tasks is null.
+	 */
+	ScheduleJob(long version, TaskSnapshot tasks, ArrayList<Person> people, ScheduleResult previous, double from, ScheduleResult cached, String key) {
+		this.version = version;
+		this.tasks = tasks;
+		this.people = people;
+		this.previous = previous;
+		this.from = from;
+		this.cached = cached;
+		this.key = key;
+	}
+
+	/**
+	 * Computes the schedule, unless the same inputs were scheduled before.
+	 * @param monitor told about the progress and able to stop the run, or null
+	 * @return true if every task could be scheduled, false if there is a dependency loop or the run was stopped
+	 */
+	public boolean run(ScheduleEngine.Monitor monitor) {
+		if(cached != null) {
+			if(monitor != null) { monitor.progress(cached.size(), cached.size()); }
+			isScheduled = true;
+			return true;
+		}
+		engine = new ScheduleEngine(tasks, people); // The copy taken for this job only.
+		engine.setMonitor(monitor);
+		isScheduled = previous != null ? engine.resume(previous, from) : engine.run();
+		return isScheduled;
+	}
+
+	/**
+	 * Checks if the last run scheduled every task.
+	 * @return true if the schedule can be published, false otherwise
+	 */
+	public boolean isScheduled() {
+		return isScheduled;
+	}
+
+	/*
+	 * Returns the engine that computed the schedule, or null if it was found in the cache.
+	 */
+	ScheduleEngine getEngine() {
+		return engine;
+	}
+
+	/*
+	 * Returns the result found in the cache when the job was prepared, or null.
+	 */
+	ScheduleResult getCached() {
+		return cached;
+	}
+
+	/*
+	 * Returns the cache key of the inputs, or null if the cache is disabled.
+	 */
+	String getKey() {
+		return key;
+	}
+
+	/*
+	 * Returns the version of the schedule the job was prepared at.
+	 */
+	long getVersion() {
+		return version;
+	}
+
+}
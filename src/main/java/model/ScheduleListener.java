@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * Told about the changes made to a TaskSchedule, on the thread chosen by TaskSchedule.setEventDispatcher.
+ *
+ */
+public interface ScheduleListener {
+
+	/**
+	 * Called with the changes made since the previous call.
+	 * @param event changes, coalesced
+	 */
+	void scheduleChanged(ScheduleEvent event);
+
+}
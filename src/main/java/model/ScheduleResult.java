@@ -0,0 +1,188 @@
+package model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores the outcome of a schedule by task and person ID: when each task became ready, started and completed,
+ * how many people worked on it, and the tasks each person worked on.
+ * It keeps no reference to the tasks themselves, so it stays valid after the tasks are edited.
+ *
+ */
+public class ScheduleResult {
+
+	private final int[] taskIds;
+	private final double[] timeReady, timeStart, timeEnd, reduction;
+	private final int[] headcount;
+	private final HashMap<Integer, Integer> indexById;
+	private final HashMap<Integer, int[]> assignedTaskIds;
+
+	/*
+	 * Arrays are indexed by position in the start order and are not copied; only the engine creates results.
+	 */
+	ScheduleResult(int[] taskIds, double[] timeReady, double[] timeStart, double[] timeEnd, double[] reduction, int[] headcount,
+			HashMap<Integer, int[]> assignedTaskIds) {
+		this.taskIds = taskIds;
+		this.timeReady = timeReady;
+		this.timeStart = timeStart;
+		this.timeEnd = timeEnd;
+		this.reduction = reduction;
+		this.headcount = headcount;
+		this.assignedTaskIds = assignedTaskIds;
+		indexById = new HashMap<Integer, Integer>();
+		for(int i = 0; i < taskIds.length; i++) {
+			indexById.put(taskIds[i], i);
+		}
+	}
+
+	/**
+	 * Returns the number of scheduled tasks.
+	 * @return number of tasks
+	 */
+	public int size() {
+		return taskIds.length;
+	}
+
+	/**
+	 * Returns the ID of the task started at the given position, the tasks being ordered by start time.
+	 * @param position position in the start order
+	 * @return ID of the task
+	 */
+	public int getTaskID(int position) {
+		return taskIds[position];
+	}
+
+	/**
+	 * Checks if a task was part of the schedule.
+	 * @param taskId ID of the task
+	 * @return true if the task was scheduled, false otherwise
+	 */
+	public boolean hasTask(int taskId) {
+		return indexById.containsKey(taskId);
+	}
+
+	/**
+	 * Returns the time at which all the dependencies of a task were completed.
+	 * @param taskId ID of a scheduled task
+	 * @return ready time of the task
+	 */
+	public double getTimeReady(int taskId) {
+		return timeReady[indexById.get(taskId)];
+	}
+
+	/**
+	 * Returns the starting time of a task.
+	 * @param taskId ID of a scheduled task
+	 * @return start time of the task
+	 */
+	public double getTimeStart(int taskId) {
+		return timeStart[indexById.get(taskId)];
+	}
+
+	/**
+	 * Returns the time at which a task was completed.
+	 * @param taskId ID of a scheduled task
+	 * @return completion time of the task
+	 */
+	public double getTimeEnd(int taskId) {
+		return timeEnd[indexById.get(taskId)];
+	}
+
+	/**
+	 * Returns the reduction coefficient applied to a task.
+	 * @param taskId ID of a scheduled task
+	 * @return reduction of the task
+	 */
+	public double getReduction(int taskId) {
+		return reduction[indexById.get(taskId)];
+	}
+
+	/**
+	 * Returns the number of people who worked on a task.
+	 * @param taskId ID of a scheduled task
+	 * @return number of people on the task
+	 */
+	public int getHeadcount(int taskId) {
+		return headcount[indexById.get(taskId)];
+	}
+
+	/**
+	 * Returns the IDs of the tasks a person worked on, in the order they were assigned.
+	 * @param personId ID of the person
+	 * @return array of task IDs, or null if the person was not part of the schedule
+	 */
+	public int[] getAssignedTaskIDs(int personId) {
+		return assignedTaskIds.get(personId);
+	}
+
+	/*
+	 * Writes the arrays, then the task IDs assigned to each person.
+	 */
+	void write(DataOutput out) throws IOException {
+		out.writeInt(taskIds.length);
+		for(int i = 0; i < taskIds.length; i++) {
+			out.writeInt(taskIds[i]);
+			out.writeDouble(timeReady[i]);
+			out.writeDouble(timeStart[i]);
+			out.writeDouble(timeEnd[i]);
+			out.writeDouble(reduction[i]);
+			out.writeInt(headcount[i]);
+		}
+		out.writeInt(assignedTaskIds.size());
+		for(Map.Entry<Integer, int[]> entry : assignedTaskIds.entrySet()) {
+			out.writeInt(entry.getKey());
+			out.writeInt(entry.getValue().length);
+			for(int id : entry.getValue()) {
+				out.writeInt(id);
+			}
+		}
+	}
+
+	/*
+	 * Reads a result written by write.
+	 */
+	static ScheduleResult read(DataInput in) throws IOException {
+		int n = in.readInt();
+		if(n < 0) throw new IOException("Corrupted schedule result");
+		int[] ids = new int[n];
+		double[] ready = new double[n], start = new double[n], end = new double[n], reduction = new double[n];
+		int[] count = new int[n];
+		for(int i = 0; i < n; i++) {
+			ids[i] = in.readInt();
+			ready[i] = in.readDouble();
+			start[i] = in.readDouble();
+			end[i] = in.readDouble();
+			reduction[i] = in.readDouble();
+			count[i] = in.readInt();
+		}
+		int people = in.readInt();
+		if(people < 0) throw new IOException("Corrupted schedule result");
+		HashMap<Integer, int[]> assigned = new HashMap<Integer, int[]>();
+		for(int p = 0; p < people; p++) {
+			int personId = in.readInt(), size = in.readInt();
+			if(size < 0) throw new IOException("Corrupted schedule result");
+			int[] taskIds = new int[size];
+			for(int j = 0; j < taskIds.length; j++) {
+				taskIds[j] = in.readInt();
+			}
+			assigned.put(personId, taskIds);
+		}
+		return new ScheduleResult(ids, ready, start, end, reduction, count, assigned);
+	}
+
+	/**
+	 * Returns the time at which the last task was completed.
+	 * @return makespan of the schedule
+	 */
+	public double getMakespan() {
+		double max = 0.0;
+		for(double end : timeEnd) {
+			max = end > max ? end : max;
+		}
+		return max;
+	}
+
+}
@@ -0,0 +1,80 @@
+package model;
+
+/**
+ * Order in which the scheduler starts the tasks that are ready at the same time.
+ * Each policy gives every task of a snapshot a priority; the task with the lowest value is started first,
+ * and ties go to the smallest ID.
+ *
+ */
+public enum SchedulingPolicy {
+
+	/**
+	 * Smallest effort first: the heuristic of Task.compareTo once the dependencies are completed (default).
+	 */
+	SMALLEST_EFFORT {
+		@Override
+		double[] priorities(TaskSnapshot snapshot) {
+			double[] priority = new double[snapshot.size()];
+			for(int i = 0; i < priority.length; i++) {
+				priority[i] = snapshot.getTask(i).getEffortEstimate();
+			}
+			return priority;
+		}
+	},
+
+	/**
+	 * Longest processing time first.
+	 */
+	LONGEST_PROCESSING_TIME {
+		@Override
+		double[] priorities(TaskSnapshot snapshot) {
+			double[] priority = new double[snapshot.size()];
+			for(int i = 0; i < priority.length; i++) {
+				priority[i] = -snapshot.getTask(i).getEffortEstimate();
+			}
+			return priority;
+		}
+	},
+
+	/**
+	 * Most dependents first, so that the tasks unlocking the most work are started early.
+	 */
+	MOST_DEPENDENTS {
+		@Override
+		double[] priorities(TaskSnapshot snapshot) {
+			DependencyGraph graph = snapshot.getGraph();
+			double[] priority = new double[snapshot.size()];
+			for(int i = 0; i < priority.length; i++) {
+				priority[i] = -(graph.getDependentsEnd(i) - graph.getDependentsStart(i));
+			}
+			return priority;
+		}
+	},
+
+	/**
+	 * Longest remaining path first: the tasks with the most work depending on them, directly or not, are started early.
+	 */
+	CRITICAL_PATH_RANK {
+		@Override
+		double[] priorities(TaskSnapshot snapshot) {
+			double[] priority = new double[snapshot.size()];
+			CriticalPath cpm = new CriticalPath(snapshot.getGraph());
+			if(!cpm.isAcyclic()) { return priority; } // The schedule fails anyway.
+			double[] durations = new double[priority.length];
+			for(int i = 0; i < durations.length; i++) {
+				durations[i] = Math.max(0.0, snapshot.getTask(i).getEffortEstimate());
+			}
+			cpm.analyse(durations);
+			for(int i = 0; i < priority.length; i++) {
+				priority[i] = cpm.getLatestStart(i) - cpm.getMakespan(); // Minus the length of the longest path from the start of the task to the end.
+			}
+			return priority;
+		}
+	};
+
+	/*
+	 * Returns the priority of every task of the snapshot, indexed like the snapshot.
+	 */
+	abstract double[] priorities(TaskSnapshot snapshot);
+
+}
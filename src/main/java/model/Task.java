@@ -1,21 +1,23 @@
 package model;
-import java.io.Serializable;
 import java.util.ArrayList;
 
 /**
  * Stores the attributes of a task.
  *
  */
-public class Task implements Comparable<Task>, Serializable{
+public class Task implements Comparable<Task>{
 
     private String name;
     private double effort;
     private ArrayList<Task> dependencies;
     private ArrayList<Task> dependents;
+    private transient TaskPositions dependencyPositions, dependentPositions; // Built once a list is long enough for scanning it to matter.
     private int id;
     private double timeStart;
     private double reduction;
 
+    private static final int INDEX_THRESHOLD = 16;
+
     /**
      * Constructor that creates a Task with a given name, effort, and ID that will have by default a starting time of -1.0.
      * @param name task name to be set
@@ -31,6 +33,15 @@ public class Task implements Comparable<Task>, Serializable{
     	dependencies = new ArrayList<Task>();
     	dependents = new ArrayList<Task>();
     }
+    /**
+     * Constructor that copies the name, effort, ID, starting time and reduction of another Task, without its dependencies and dependents.
+     * @param task task to be copied
+     */
+    public Task(Task task){
+    	this(task.name, task.effort, task.id);
+    	this.timeStart = task.timeStart;
+    	this.reduction = task.reduction;
+    }
     /**
      * Returns the effort of a Task.
      * @return effort of the task
@@ -81,7 +92,7 @@ public class Task implements Comparable<Task>, Serializable{
         this.reduction = reduction;
     }
 	/**
-	 * Returns the ArrayList of dependencies.
+	 * Returns the ArrayList of dependencies. It must only be modified through addDependency and removeDependency.
 	 * @return ArrayList of dependencies
 	 */
 	public ArrayList<Task> getDependencies(){
@@ -93,14 +104,18 @@ public class Task implements Comparable<Task>, Serializable{
 	 */
 	public void setDependencies(ArrayList<Task> d){
         dependencies = d;
+        dependencyPositions = null;
     }
 	/**
-	 * Removes a dependency from a task.
+	 * Removes a dependency from a task, in constant time. The last dependency takes its place in the list.
 	 * @param task Task to be removed
 	 * @return true if the removal was successful, false otherwise.
 	 */
 	public boolean removeDependency(Task task){
-		return dependencies.remove(task);
+		int position = positionOf(dependencies, dependencyPositions(), task);
+		if(position == -1) return false;
+		removeAt(dependencies, dependencyPositions, position);
+		return true;
 	}
 	/**
 	 * Adds a dependency to a task.
@@ -108,14 +123,23 @@ public class Task implements Comparable<Task>, Serializable{
 	 * @return true if the addition was successful, false otherwise (the Task already exists).
 	 */
 	public boolean addDependency(Task task){
-		if(dependencies.contains(task)) return false;
+		if(hasDependency(task)) return false;
 		else {
+			if(dependencyPositions != null) dependencyPositions.put(task.getID(), dependencies.size());
 			dependencies.add(task);
 			return true;
 		}
 	}
 	/**
-	 * Returns the ArrayList of dependents.
+	 * Checks if a task is a dependency of this task, in constant time.
+	 * @param task Task to be looked up
+	 * @return true if the task is a dependency, false otherwise
+	 */
+	public boolean hasDependency(Task task){
+		return positionOf(dependencies, dependencyPositions(), task) != -1;
+	}
+	/**
+	 * Returns the ArrayList of dependents. It must only be modified through addDependent and removeDependent.
 	 * @return ArrayList of dependents
 	 */
 	public ArrayList<Task> getDependents(){
@@ -127,14 +151,18 @@ public class Task implements Comparable<Task>, Serializable{
 	 */
 	public void setDependents(ArrayList<Task> d){
 		dependents = d;
+		dependentPositions = null;
     }
 	/**
-	 * Removes a dependent from a task.
+	 * Removes a dependent from a task, in constant time. The last dependent takes its place in the list.
 	 * @param task Task to be removed
 	 * @return true if the removal was successful, false otherwise.
 	 */
 	public boolean removeDependent(Task task){
-		return dependents.remove(task);
+		int position = positionOf(dependents, dependentPositions(), task);
+		if(position == -1) return false;
+		removeAt(dependents, dependentPositions, position);
+		return true;
 	}
 	/**
 	 * Adds a dependent to a task.
@@ -142,12 +170,56 @@ public class Task implements Comparable<Task>, Serializable{
 	 * @return true if the addition was successful, false otherwise (the Task already exists).
 	 */
 	public boolean addDependent(Task task){
-		if(dependents.contains(task)) return false;
+		if(hasDependent(task)) return false;
 		else {
+			if(dependentPositions != null) dependentPositions.put(task.getID(), dependents.size());
 			dependents.add(task);
 			return true;
 		}
 	}
+	/**
+	 * Checks if a task is a dependent of this task, in constant time.
+	 * @param task Task to be looked up
+	 * @return true if the task is a dependent, false otherwise
+	 */
+	public boolean hasDependent(Task task){
+		return positionOf(dependents, dependentPositions(), task) != -1;
+	}
+	/*
+	 * Returns the index of the dependencies, built once the list is long enough, or null.
+	 */
+	private TaskPositions dependencyPositions(){
+		if(dependencyPositions == null && dependencies.size() >= INDEX_THRESHOLD) dependencyPositions = new TaskPositions(dependencies);
+		return dependencyPositions;
+	}
+	/*
+	 * Returns the index of the dependents, built once the list is long enough, or null.
+	 */
+	private TaskPositions dependentPositions(){
+		if(dependentPositions == null && dependents.size() >= INDEX_THRESHOLD) dependentPositions = new TaskPositions(dependents);
+		return dependentPositions;
+	}
+	/*
+	 * Returns the position of a task in a list, looked up in its index if it has one.
+	 */
+	private static int positionOf(ArrayList<Task> list, TaskPositions positions, Task task){
+		return positions != null ? positions.get(task.getID()) : list.indexOf(task);
+	}
+	/*
+	 * Removes the task at a position. A short list keeps its order, which the views show; an indexed list moves its
+	 * last task there instead, so that no other position changes.
+	 */
+	private static void removeAt(ArrayList<Task> list, TaskPositions positions, int position){
+		if(positions == null) {
+			list.remove(position);
+			return;
+		}
+		int last = list.size() - 1;
+		Task removed = list.get(position), moved = list.remove(last);
+		if(position < last) list.set(position, moved);
+		positions.remove(removed.getID());
+		if(position < last) positions.put(moved.getID(), position);
+	}
 	/**
 	 * Returns a string representation of a task object.
 	 */
@@ -177,5 +249,12 @@ public class Task implements Comparable<Task>, Serializable{
 		else if(id != ((Task) other).id) return false;
 		else return true;
 	}
+	/**
+	 * Returns a hash code consistent with equals, based on the ID.
+	 */
+	@Override
+	public int hashCode(){
+		return id;
+	}
 
 }
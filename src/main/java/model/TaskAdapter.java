@@ -0,0 +1,117 @@
+package model;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Reads and writes a task as a flat JSON object whose dependents are stored as a list of task IDs, so every task
+ * is stored once whatever the depth of the graph. Files written before this format nested every dependent as a full
+ * task object; only the ID of those objects is read.
+ * The tasks are read without their dependents: the IDs are kept by the adapter until all the tasks are loaded
+ * and can be linked.
+ *
+ */
+class TaskAdapter extends TypeAdapter<Task> {
+
+	private final HashMap<Integer, int[]> dependentIds = new HashMap<Integer, int[]>();
+
+	@Override
+	public void write(JsonWriter out, Task task) throws IOException {
+		if(task == null) {
+			out.nullValue();
+			return;
+		}
+		out.beginObject();
+		out.name("name").value(task.getName());
+		out.name("effort").value(task.getEffortEstimate());
+		out.name("id").value(task.getID());
+		out.name("timeStart").value(task.getTimeStart());
+		out.name("reduction").value(task.getReduction());
+		out.name("dependents").beginArray();
+		for(Task dependent : task.getDependents()) {
+			out.value(dependent.getID());
+		}
+		out.endArray();
+		out.endObject();
+	}
+
+	@Override
+	public Task read(JsonReader in) throws IOException {
+		if(in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		String name = null;
+		double effort = 0.0, timeStart = -1.0, reduction = 1.0;
+		int id = 0;
+		int[] dependents = new int[0];
+		in.beginObject();
+		while(in.hasNext()) {
+			String field = in.nextName();
+			if(in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				continue;
+			}
+			switch(field) {
+			case "name": name = in.nextString(); break;
+			case "effort": effort = in.nextDouble(); break;
+			case "id": id = in.nextInt(); break;
+			case "timeStart": timeStart = in.nextDouble(); break;
+			case "reduction": reduction = in.nextDouble(); break;
+			case "dependents": dependents = readIds(in); break;
+			default: in.skipValue(); break; // The dependencies are rebuilt from the dependents.
+			}
+		}
+		in.endObject();
+		Task task = new Task(name, effort, id);
+		task.setTimeStart(timeStart);
+		task.setReduction(reduction);
+		dependentIds.put(id, dependents);
+		return task;
+	}
+
+	/**
+	 * Returns the IDs of the dependents of a task read by this adapter.
+	 * @param taskId ID of the task
+	 * @return IDs of the dependents, or null if the task was not read
+	 */
+	int[] getDependentIDs(int taskId) {
+		return dependentIds.get(taskId);
+	}
+
+	/*
+	 * Reads an array of IDs, or of nested task objects in the old format.
+	 */
+	private static int[] readIds(JsonReader in) throws IOException {
+		int[] ids = new int[8];
+		int size = 0;
+		in.beginArray();
+		while(in.hasNext()) {
+			if(size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+			ids[size++] = in.peek() == JsonToken.BEGIN_OBJECT ? readNestedId(in) : in.nextInt();
+		}
+		in.endArray();
+		return Arrays.copyOf(ids, size);
+	}
+
+	/*
+	 * Reads the ID of a nested task and skips the rest of it, including its own nested dependents.
+	 */
+	private static int readNestedId(JsonReader in) throws IOException {
+		int id = -1;
+		in.beginObject();
+		while(in.hasNext()) {
+			if(in.nextName().equals("id") && in.peek() == JsonToken.NUMBER) id = in.nextInt();
+			else in.skipValue();
+		}
+		in.endObject();
+		return id;
+	}
+
+}
@@ -1,65 +1,633 @@
 package model;
 
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Observable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * Computes and stores a list of scheduled tasks.
+ * Every method that changes the schedule does so under its lock and increases its version, so changes can be made on
+ * any thread. The collections returned by getTasks, getPeople, getScheduledTasks and getWorkingPeople are unmodifiable
+ * views of the live ones: they are only read on the thread making the changes, the JavaFX thread in the application.
+ * Other threads read getSnapshot(), an immutable copy taken at most once per version. A schedule job copies only the tasks,
+ * once, and the views of the schedule are shared by the snapshots until the next schedule replaces them.
+ * The changes are delivered to the listeners outside the lock as ScheduleEvents, which carry what was added, removed or
+ * changed; the changes made before the event dispatcher runs the delivery are coalesced into a single event.
  *
  */
-public class TaskSchedule extends Observable{
+public class TaskSchedule {
+
+	/**
+	 * Maximum number of tasks that can be created, set with the system property planner.maxTasks (default 100000).
+	 */
+	public static final int MAX_TASKS = Integer.getInteger("planner.maxTasks", 100000);
+	/**
+	 * Maximum number of people that can be created, set with the system property planner.maxPeople (default 10000).
+	 */
+	public static final int MAX_PEOPLE = Integer.getInteger("planner.maxPeople", 10000);
+	/**
+	 * Whether a binary snapshot of the project is written next to the tasks file and preferred on load while it is
+	 * up to date, set with the system property planner.binarySnapshot (default false).
+	 */
+	public static final boolean IS_BINARY_SNAPSHOT = Boolean.getBoolean("planner.binarySnapshot");
+	/**
+	 * Number of journal records after which saving writes the project files in full and empties the journal,
+	 * set with the system property planner.journalCompaction (default 1000).
+	 */
+	public static final int JOURNAL_COMPACTION = Integer.getInteger("planner.journalCompaction", 1000);
+	/**
+	 * Number of schedule results kept in memory to be reused when the same tasks, dependencies, efforts and people
+	 * are scheduled again, set with the system property planner.scheduleCacheSize (default 16, 0 to disable the cache).
+	 */
+	public static final int SCHEDULE_CACHE_SIZE = Integer.getInteger("planner.scheduleCacheSize", 16);
+	/**
+	 * Directory where the schedule results are also written, to be reused by later sessions, set with the system
+	 * property planner.scheduleCacheDir (default none: the results are only kept in memory).
+	 */
+	public static final String SCHEDULE_CACHE_DIR = System.getProperty("planner.scheduleCacheDir");
 
-	private HashMap<Integer, ArrayList<Task>> assignedTasks;
+	private HashMap<Integer, List<Task>> assignedTasks; // The lists cannot be modified, so snapshots share them.
 	private HashMap<Integer, Person> personMap;
 
 	private PriorityQueue<Task> tasks;
-	private ArrayList<Task> scheduledTasks;
+	private List<Task> scheduledTasks; // Cannot be modified: replaced by each schedule.
 	private boolean isNewScheduleRequired;
-	private File fileTasks, filePeople;
-	private BufferedReader reader;
-	private BufferedWriter writer;
+	private final Object lock = new Object();
+	private long version; // Counts the changes, so that a snapshot or a schedule computed meanwhile is not used.
+	private ProjectSnapshot snapshot; // Of the current version, once taken.
+	private final CopyOnWriteArrayList<ScheduleListener> listeners = new CopyOnWriteArrayList<ScheduleListener>();
+	private Executor eventDispatcher = Runnable::run;
+	private ScheduleEvent pendingEvent; // Changes not delivered yet.
+	private boolean isDeliveryScheduled;
+	private boolean isIncremental;
+	private ScheduleResult lastResult;
+	private SchedulingPolicy lastPolicy;
+	private double invalidFrom;
+	private File fileTasks, filePeople, fileSnapshot;
+	private ChangeJournal journal;
+	private ProjectSaver saver;
+	private ScheduleCache resultCache;
 	private Gson gsonObj;
 
-	private final int MAX_EFFORT_TASK = 100;
-
+	private static final File DEFAULT_TASKS_FILE = new File("src/main/java/model/resources/tasks.txt");
+	private static final File DEFAULT_PEOPLE_FILE = new File("src/main/java/model/resources/people.txt");
 
 	/**
 	 * Constructor that initialises the data structures associated with the Task Schedule.
 	 */
 	public TaskSchedule() {
+		this(DEFAULT_TASKS_FILE, DEFAULT_PEOPLE_FILE);
+	}
+
+	/**
+	 * Constructor that reads the tasks and the people from the given files instead of the application resources.
+	 * Files that do not exist yet are treated as empty.
+	 * @param fileTasks file storing the tasks
+	 * @param filePeople file storing the people
+	 */
+	public TaskSchedule(File fileTasks, File filePeople) {
+		this(fileTasks, filePeople, true);
+	}
+
+	private TaskSchedule(File fileTasks, File filePeople, boolean isRead) {
 		personMap = new HashMap<Integer, Person>();
-		assignedTasks = new HashMap<Integer, ArrayList<Task>>();
+		assignedTasks = new HashMap<Integer, List<Task>>();
 		tasks = new PriorityQueue<Task>(); // Create the priority queue that stores the unscheduled tasks.
-		scheduledTasks = new ArrayList<Task>(); // Create the ArrayList that stores the scheduled tasks.
-		fileTasks = new File("src/main/java/model/resources/tasks.txt");
-		filePeople = new File("src/main/java/model/resources/people.txt");
+		scheduledTasks = Collections.emptyList(); // No schedule yet.
+		this.fileTasks = fileTasks;
+		this.filePeople = filePeople;
+		this.fileSnapshot = siblingFile(".bin"); // tasks.txt -> tasks.bin
 		gsonObj = new Gson();
 		isNewScheduleRequired = true;
+		isIncremental = true;
+		invalidFrom = 0.0;
+		journal = new ChangeJournal(siblingFile(".journal"), isRead);
+		saver = new ProjectSaver(fileTasks, filePeople, fileSnapshot, IS_BINARY_SNAPSHOT, gsonObj);
+		if(SCHEDULE_CACHE_SIZE > 0) {
+			resultCache = new ScheduleCache(SCHEDULE_CACHE_SIZE, SCHEDULE_CACHE_DIR == null ? null : new File(SCHEDULE_CACHE_DIR));
+		}
+		if(!isRead) return;
 		readFiles();
+		applyChanges(journal.getCommitted()); // Saved with saveChanges since the files were last written.
+	}
+
+	/**
+	 * Creates an empty schedule that reads nothing, to be shown while the project is read on another thread
+	 * and then published with load. It must not be saved before that.
+	 * @return schedule with no tasks and no people
+	 */
+	public static TaskSchedule createLoading() {
+		return new TaskSchedule(DEFAULT_TASKS_FILE, DEFAULT_PEOPLE_FILE, false);
+	}
+
+	/**
+	 * Publishes a schedule read on another thread in one step: this schedule takes its tasks, its people, its files
+	 * and its journal, and its listeners are told once. Must be called on the thread that uses this schedule.
+	 * @param loaded schedule that is not used anymore
+	 */
+	public void load(TaskSchedule loaded) {
+		synchronized(lock) {
+			personMap = loaded.personMap;
+			assignedTasks = loaded.assignedTasks;
+			tasks = loaded.tasks;
+			scheduledTasks = Collections.emptyList();
+			fileTasks = loaded.fileTasks;
+			filePeople = loaded.filePeople;
+			fileSnapshot = loaded.fileSnapshot;
+			journal = loaded.journal;
+			saver = loaded.saver;
+			isNewScheduleRequired = true;
+			version++;
+			lastResult = null;
+			lastPolicy = null;
+			invalidFrom = 0.0;
+			event().reset();
+			event().scheduleChanged();
+		}
+		fireEvent();
+	}
+
+	/*
+	 * Returns the file next to the tasks file with the given extension instead of its own.
+	 */
+	private File siblingFile(String extension) {
+		return new File(fileTasks.getParentFile(), fileTasks.getName().replaceFirst("(\\.[^.]*)?$", extension));
 	}
 	/**
 	 * Add a task to the priority queue of tasks.
 	 * @param task task to be added to the priority queue of unscheduled tasks
 	 */
 	public void addTask(Task task) {
-		tasks.add(task);
-		setChanged();
-		notifyObservers("Tasks");
+		synchronized(lock) {
+			tasks.add(task);
+			version++;
+			event().taskAdded(task);
+			recordAddTask(task);
+		}
+		fireEvent();
 	}
 	/**
 	 * Add a person to the HashMap where <k,v> is <Person.ID, Person>
 	 * @param person person to be added to the HashMap of people
 	 */
 	public void addPerson(Person person) {
-		personMap.put(person.getID(), person);
-		assignedTasks.put(person.getID(), new ArrayList<Task>());
+		synchronized(lock) {
+			personMap.put(person.getID(), person);
+			assignedTasks.put(person.getID(), Collections.<Task>emptyList());
+			version++;
+			event().personAdded(person);
+			record(ChangeJournal.ADD_PERSON, "person", gsonObj.toJsonTree(person));
+		}
+		fireEvent();
+	}
+
+	/**
+	 * Makes a task depend on another one, unless this would create a dependency loop.
+	 * The part of the schedule affected by the change is invalidated.
+	 * @param task task that depends on the other one
+	 * @param dependency task that must be completed first
+	 * @return the loop the dependency would create, as returned by findDependencyCycle, or an empty list if it was added or already existed
+	 */
+	public ArrayList<Task> addDependency(Task task, Task dependency) {
+		ArrayList<Task> cycle;
+		synchronized(lock) {
+			if(!task.addDependency(dependency)) return new ArrayList<Task>(); // Already there: nothing changes.
+			dependency.addDependent(task);
+			cycle = findDependencyCycle();
+			if(!cycle.isEmpty()) {
+				task.removeDependency(dependency);
+				dependency.removeDependent(task);
+				return cycle;
+			}
+			invalidateTask(task);
+			event().taskChanged(dependency.getID());
+			record(ChangeJournal.ADD_DEPENDENCY, task, dependency);
+		}
+		fireEvent();
+		return cycle;
+	}
+
+	/**
+	 * Removes a dependency between two tasks and invalidates the part of the schedule affected by the change.
+	 * @param task task that depends on the other one
+	 * @param dependency task that had to be completed first
+	 * @return true if the dependency existed, false otherwise
+	 */
+	public boolean removeDependency(Task task, Task dependency) {
+		synchronized(lock) {
+			if(!task.removeDependency(dependency)) return false;
+			dependency.removeDependent(task);
+			invalidateTask(task);
+			event().taskChanged(dependency.getID());
+			record(ChangeJournal.REMOVE_DEPENDENCY, task, dependency);
+		}
+		fireEvent();
+		return true;
+	}
+
+	/**
+	 * Adds the tasks, people and dependencies read from CSV files in one step, like addAll.
+	 * @param imported content of the CSV files, whose tasks and people are added as they are
+	 * @throws IllegalArgumentException describing the first problem found
+	 */
+	public void importProject(CsvProjectFile imported) {
+		addAll(imported.getTasks(), imported.getPeople(), imported.getDependencies());
+	}
+
+	/**
+	 * Adds tasks, people and dependencies in one step, after checking all of them: nothing is added if an ID is already used,
+	 * if a dependency refers to a task that is neither added nor planned, if the dependencies would form a loop, or if
+	 * MAX_TASKS or MAX_PEOPLE would be exceeded. The dependencies are linked by ID in one pass, the schedule is invalidated
+	 * once, from the earliest time a change takes effect (from time 0 if people are added), and the listeners are told once.
+	 * @param newTasks tasks to be added, without dependencies on each other yet
+	 * @param newPeople people to be added
+	 * @param dependencies pairs of task IDs, the first task of each pair depending on the second one
+	 * @throws IllegalArgumentException describing the first problem found
+	 */
+	public void addAll(Collection<Task> newTasks, Collection<Person> newPeople, int[] dependencies) {
+		synchronized(lock) {
+			if(newTasks.isEmpty() && newPeople.isEmpty() && dependencies.length == 0) return;
+			if(tasks.size() + newTasks.size() > MAX_TASKS) throw new IllegalArgumentException("More than " + MAX_TASKS + " tasks");
+			if(personMap.size() + newPeople.size() > MAX_PEOPLE) throw new IllegalArgumentException("More than " + MAX_PEOPLE + " people");
+			HashMap<Integer, Task> taskById = new HashMap<Integer, Task>((tasks.size() + newTasks.size()) * 2);
+			for(Task t : tasks) {
+				taskById.put(t.getID(), t);
+			}
+			HashSet<Integer> newTaskIds = new HashSet<Integer>(newTasks.size() * 2);
+			for(Task t : newTasks) {
+				if(taskById.putIfAbsent(t.getID(), t) != null) throw new IllegalArgumentException("Task ID " + t.getID() + " is already used");
+				newTaskIds.add(t.getID());
+			}
+			HashSet<Integer> personIds = new HashSet<Integer>(personMap.keySet());
+			for(Person p : newPeople) {
+				if(!personIds.add(p.getID())) throw new IllegalArgumentException("Person ID " + p.getID() + " is already used");
+			}
+			int[] edges = dependencies;
+			for(int i = 0; i < edges.length; i += 2) {
+				if(!taskById.containsKey(edges[i])) throw new IllegalArgumentException("Unknown task ID " + edges[i]);
+				if(!taskById.containsKey(edges[i + 1])) throw new IllegalArgumentException("Unknown task ID " + edges[i + 1]);
+				if(edges[i] == edges[i + 1]) throw new IllegalArgumentException("Task " + edges[i] + " depends on itself");
+			}
+
+			boolean[] isLinked = new boolean[edges.length / 2];
+			boolean isPlannedTaskChanged = false;
+			for(int i = 0; i < edges.length; i += 2) {
+				Task task = taskById.get(edges[i]), dependency = taskById.get(edges[i + 1]);
+				if(!task.addDependency(dependency)) continue; // Listed twice.
+				dependency.addDependent(task);
+				isLinked[i / 2] = true;
+				isPlannedTaskChanged |= !newTaskIds.contains(task.getID());
+			}
+			ArrayList<Task> all = new ArrayList<Task>(taskById.values());
+			ArrayList<Task> cycle = findDependencyCycle(all);
+			if(!cycle.isEmpty()) {
+				for(int i = 0; i < edges.length; i += 2) {
+					if(!isLinked[i / 2]) continue;
+					Task task = taskById.get(edges[i]), dependency = taskById.get(edges[i + 1]);
+					task.removeDependency(dependency);
+					dependency.removeDependent(task);
+				}
+				StringBuilder path = new StringBuilder();
+				for(Task t : cycle) {
+					path.append(t.getID()).append(" -> ");
+				}
+				throw new IllegalArgumentException("Dependency loop: " + path.append(cycle.get(0).getID()));
+			}
+
+			if(isPlannedTaskChanged) { // Their number of dependencies orders the queue.
+				ArrayList<Task> planned = new ArrayList<Task>(tasks);
+				tasks.clear();
+				tasks.addAll(planned);
+			}
+			tasks.addAll(newTasks); // After linking, so that the queue is ordered on the number of dependencies.
+			for(Task t : newTasks) {
+				event().taskAdded(t);
+			}
+			for(int i = 0; i < edges.length; i += 2) { // The planned tasks gained dependencies or dependents.
+				if(isLinked[i / 2]) {
+					event().taskChanged(edges[i]);
+					event().taskChanged(edges[i + 1]);
+				}
+			}
+			for(Person p : newPeople) {
+				addPerson(p);
+			}
+			double from = newPeople.isEmpty() ? Double.POSITIVE_INFINITY : 0.0; // A new person could have started any task.
+			for(Task t : newTasks) {
+				from = Math.min(from, invalidFrom(t));
+			}
+			for(int i = 0; i < edges.length; i += 2) {
+				if(isLinked[i / 2]) from = Math.min(from, invalidFrom(taskById.get(edges[i])));
+			}
+			invalidate(from);
+			if(journal.isOpen()) {
+				for(Task t : newTasks) {
+					recordAddTask(t);
+				}
+				for(int i = 0; i < edges.length; i += 2) { // The other ones are part of the records of the new tasks.
+					if(isLinked[i / 2] && !newTaskIds.contains(edges[i]) && !newTaskIds.contains(edges[i + 1])) {
+						record(ChangeJournal.ADD_DEPENDENCY, taskById.get(edges[i]), taskById.get(edges[i + 1]));
+					}
+				}
+			}
+		}
+		fireEvent();
+	}
+
+	/**
+	 * Adds dependencies between planned tasks in one step, like addAll.
+	 * @param dependencies pairs of task IDs, the first task of each pair depending on the second one
+	 * @throws IllegalArgumentException describing the first problem found
+	 */
+	public void addDependencies(int[] dependencies) {
+		addAll(new ArrayList<Task>(), new ArrayList<Person>(), dependencies);
+	}
+
+	/**
+	 * Removes tasks and people in one step, after checking that all of them are planned: nothing is removed otherwise.
+	 * The tasks left lose their dependencies on the removed tasks; the removed tasks keep their own lists. The schedule is
+	 * invalidated once, from the earliest time a change takes effect (from time 0 if people are removed), and the
+	 * listeners are told once.
+	 * @param taskIds IDs of the tasks to be removed
+	 * @param personIds IDs of the people to be removed
+	 * @throws IllegalArgumentException if an ID is unknown
+	 */
+	public void removeAll(Collection<Integer> taskIds, Collection<Integer> personIds) {
+		synchronized(lock) {
+			HashMap<Integer, Task> taskById = new HashMap<Integer, Task>(tasks.size() * 2);
+			for(Task t : tasks) {
+				taskById.put(t.getID(), t);
+			}
+			HashSet<Integer> removedIds = new HashSet<Integer>(taskIds);
+			for(int id : removedIds) {
+				if(!taskById.containsKey(id)) throw new IllegalArgumentException("Unknown task ID " + id);
+			}
+			for(int id : personIds) {
+				if(!personMap.containsKey(id)) throw new IllegalArgumentException("Unknown person ID " + id);
+			}
+			if(removedIds.isEmpty() && personIds.isEmpty()) return;
+
+			double from = personIds.isEmpty() ? Double.POSITIVE_INFINITY : 0.0;
+			ArrayList<Task> unlinked = new ArrayList<Task>(); // Tasks left that lost a dependency.
+			for(int id : removedIds) {
+				Task task = taskById.get(id);
+				from = Math.min(from, invalidFrom(task)); // The people working on it are free from then.
+				for(Task dependent : task.getDependents()) {
+					if(removedIds.contains(dependent.getID())) continue;
+					dependent.removeDependency(task);
+					unlinked.add(dependent);
+					event().taskChanged(dependent.getID());
+				}
+				for(Task dependency : task.getDependencies()) {
+					if(removedIds.contains(dependency.getID())) continue;
+					dependency.removeDependent(task);
+					event().taskChanged(dependency.getID());
+				}
+				event().taskRemoved(id);
+				record(ChangeJournal.REMOVE_TASK, "task", new JsonPrimitive(id));
+			}
+			if(!removedIds.isEmpty()) { // Also reorders the tasks that lost a dependency.
+				ArrayList<Task> kept = new ArrayList<Task>(tasks.size());
+				for(Task t : tasks) {
+					if(!removedIds.contains(t.getID())) kept.add(t);
+				}
+				tasks.clear();
+				tasks.addAll(kept);
+			}
+			for(Task t : unlinked) {
+				from = Math.min(from, invalidFrom(t));
+			}
+			for(int id : personIds) {
+				personMap.remove(id);
+				assignedTasks.remove(id);
+				event().personRemoved(id);
+				record(ChangeJournal.REMOVE_PERSON, "person", new JsonPrimitive(id));
+			}
+			invalidate(from);
+		}
+		fireEvent();
+	}
+
+	/**
+	 * Removes dependencies in one step, after checking that all the task IDs are planned: nothing is removed otherwise.
+	 * Pairs that are not dependencies are skipped. The schedule is invalidated once and the listeners are told once.
+	 * @param dependencies pairs of task IDs, the first task of each pair depending on the second one
+	 * @return number of dependencies removed
+	 * @throws IllegalArgumentException if a task ID is unknown
+	 */
+	public int removeDependencies(int[] dependencies) {
+		int removed = 0;
+		synchronized(lock) {
+			HashMap<Integer, Task> taskById = new HashMap<Integer, Task>(tasks.size() * 2);
+			for(Task t : tasks) {
+				taskById.put(t.getID(), t);
+			}
+			for(int id : dependencies) {
+				if(!taskById.containsKey(id)) throw new IllegalArgumentException("Unknown task ID " + id);
+			}
+			double from = Double.POSITIVE_INFINITY;
+			for(int i = 0; i < dependencies.length; i += 2) {
+				Task task = taskById.get(dependencies[i]), dependency = taskById.get(dependencies[i + 1]);
+				if(!task.removeDependency(dependency)) continue;
+				dependency.removeDependent(task);
+				from = Math.min(from, invalidFrom(task));
+				event().taskChanged(task.getID());
+				event().taskChanged(dependency.getID());
+				record(ChangeJournal.REMOVE_DEPENDENCY, task, dependency);
+				removed++;
+			}
+			if(removed == 0) return 0;
+			ArrayList<Task> all = new ArrayList<Task>(tasks); // Their number of dependencies orders the queue.
+			tasks.clear();
+			tasks.addAll(all);
+			invalidate(from);
+		}
+		fireEvent();
+		return removed;
+	}
+
+	/**
+	 * Starts writing every change to a journal next to the tasks file as soon as it is made, so that a session
+	 * that ends without saving can be recovered. The changes left unsaved by such a session are applied first.
+	 * @return number of changes recovered
+	 */
+	public int openJournal() {
+		int recovered;
+		synchronized(lock) {
+			recovered = journal.getUncommitted().size();
+			applyChanges(journal.getUncommitted());
+			if(recovered > 0) event().reset();
+			try {
+				journal.open();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		fireEvent();
+		return recovered;
+	}
+
+	/**
+	 * Saves the changes made since the last save. With an open journal, only a commit record is appended,
+	 * and the files are written in full in the background once the journal holds JOURNAL_COMPACTION records;
+	 * otherwise the files are written.
+	 */
+	public void saveChanges() {
+		synchronized(lock) { // No change is journaled between the commit and the copy of a compaction.
+			if(!journal.isOpen()) {
+				writeFiles();
+				return;
+			}
+			try {
+				journal.commit();
+			} catch (IOException e) {
+				e.printStackTrace();
+				writeFiles(); // The changes must not be lost.
+				return;
+			}
+			if(journal.getRecordCount() >= JOURNAL_COMPACTION) writeFilesAsync();
+		}
+	}
+
+	/**
+	 * Forgets the changes journaled since the last save, so that they are not recovered by the next session.
+	 */
+	public void discardChanges() {
+		synchronized(lock) {
+			try {
+				journal.discard();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/*
+	 * Appends a change to the journal, if it is open: it is not while loading and replaying changes, or if it is not used.
+	 */
+	private void record(String op, String property, JsonElement value) {
+		if(!journal.isOpen()) return;
+		JsonObject change = new JsonObject();
+		change.addProperty("op", op);
+		change.add(property, value);
+		append(change);
+	}
+
+	private void recordAddTask(Task task) {
+		if(!journal.isOpen()) return;
+		JsonObject change = new JsonObject();
+		change.addProperty("op", ChangeJournal.ADD_TASK);
+		change.add("task", new TaskAdapter().toJsonTree(task)); // With the IDs of its dependents.
+		JsonArray dependencies = new JsonArray();
+		for(Task d : task.getDependencies()) dependencies.add(d.getID());
+		change.add("dependencies", dependencies);
+		append(change);
+	}
+
+	private void record(String op, Task task, Task dependency) {
+		if(!journal.isOpen()) return;
+		JsonObject change = new JsonObject();
+		change.addProperty("op", op);
+		change.addProperty("task", task.getID());
+		change.addProperty("dependency", dependency.getID());
+		append(change);
+	}
+
+	private void append(JsonObject change) {
+		try {
+			journal.append(change);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/*
+	 * Applies journaled changes to the tasks and people; changes that are already applied are skipped.
+	 */
+	private void applyChanges(List<JsonObject> changes) {
+		if(changes.isEmpty()) return;
+		TaskAdapter taskAdapter = new TaskAdapter();
+		HashMap<Integer, Task> taskById = new HashMap<Integer, Task>(tasks.size() * 2);
+		for(Task t : tasks) {
+			taskById.put(t.getID(), t);
+		}
+		for(JsonObject change : changes) {
+			switch(change.get("op").getAsString()) {
+			case ChangeJournal.ADD_TASK:
+				Task task = taskAdapter.fromJsonTree(change.get("task"));
+				if(taskById.putIfAbsent(task.getID(), task) != null) break;
+				for(int id : taskAdapter.getDependentIDs(task.getID())) {
+					Task dependent = taskById.get(id);
+					if(dependent != null && task.addDependent(dependent)) dependent.addDependency(task);
+				}
+				if(change.has("dependencies")) {
+					for(JsonElement id : change.getAsJsonArray("dependencies")) {
+						Task dependency = taskById.get(id.getAsInt());
+						if(dependency != null && task.addDependency(dependency)) dependency.addDependent(task);
+					}
+				}
+				tasks.add(task); // After linking, so that the queue is ordered on the number of dependencies.
+				break;
+			case ChangeJournal.ADD_PERSON:
+				addPerson(gsonObj.fromJson(change.get("person"), Person.class));
+				break;
+			case ChangeJournal.REMOVE_TASK:
+				Task removed = taskById.remove(change.get("task").getAsInt());
+				if(removed == null) break;
+				for(Task t : removed.getDependents()) t.removeDependency(removed);
+				for(Task t : removed.getDependencies()) t.removeDependent(removed);
+				tasks.remove(removed);
+				break;
+			case ChangeJournal.REMOVE_PERSON:
+				personMap.remove(change.get("person").getAsInt());
+				assignedTasks.remove(change.get("person").getAsInt());
+				break;
+			case ChangeJournal.ADD_DEPENDENCY:
+			case ChangeJournal.REMOVE_DEPENDENCY:
+				Task dependent = taskById.get(change.get("task").getAsInt());
+				Task dependency = taskById.get(change.get("dependency").getAsInt());
+				if(dependent == null || dependency == null || dependent == dependency) break;
+				if(change.get("op").getAsString().equals(ChangeJournal.ADD_DEPENDENCY)) {
+					dependent.addDependency(dependency);
+					dependency.addDependent(dependent);
+				}else{
+					dependent.removeDependency(dependency);
+					dependency.removeDependent(dependent);
+				}
+				break;
+			default:
+				break;
+			}
+		}
+		setNewScheduleRequired(true);
 	}
 
 	/**
@@ -89,120 +657,324 @@ public class TaskSchedule extends Observable{
 	/**
 	 * Updates the ArrayList of scheduled tasks and the HashMap of ArrayList of people that are assigned to tasks, according to the
 	 * task scheduling technique of minimising the overall effort of working on tasks.
+	 * If the same tasks, dependencies, efforts and people were scheduled before, the cached result is published instead.
 	 * @return true if successfully created a schedule, false otherwise
 	 */
 	public boolean scheduleTasks() {
 		if(!isNewScheduleRequired) {
 			return true;
 		}
-		double time = 0.0;
-		boolean existsInitialTask = false;
-		for(Task t: tasks) {
-			if(t.getDependencies().size() == 0) {
-				existsInitialTask = true;
+		ScheduleJob job = prepareSchedule();
+		return job != null && job.run(null) && publishSchedule(job);
+	}
+
+	/**
+	 * Copies the tasks so that the next schedule can be computed on another thread with ScheduleJob.run, then published
+	 * on this thread with publishSchedule. Like scheduleTasks(), only the part of the schedule after the earliest change
+	 * is recomputed, and a cached result is used if the same inputs were scheduled before, in which case nothing is copied.
+	 * @return job computing the schedule, or null if there is no task without dependencies or nobody to work on the tasks
+	 */
+	public ScheduleJob prepareSchedule() {
+		synchronized(lock) {
+			boolean existsInitialTask = false;
+			for(Task t: tasks) {
+				if(t.getDependencies().size() == 0) {
+					existsInitialTask = true;
+				}
+			}
+			if(!existsInitialTask || personMap.size() == 0) {
+				return null;
+			}
+			String key = resultCache == null ? null : ScheduleCache.keyOf(tasks, personMap.values());
+			ScheduleResult cached = key == null ? null : resultCache.get(key, SchedulingPolicy.SMALLEST_EFFORT);
+			boolean isResumed = isIncremental && lastResult != null && lastPolicy == SchedulingPolicy.SMALLEST_EFFORT && invalidFrom > 0.0;
+			// Keep what happened before the earliest change when resumed. The engine only reads the IDs of the people.
+			return new ScheduleJob(version, cached == null ? new TaskSnapshot(tasks) : null, new ArrayList<Person>(personMap.values()),
+					isResumed ? lastResult : null, invalidFrom, cached, key);
+		}
+	}
+
+	/**
+	 * Replaces the current schedule by the one computed by a job and tells the listeners, unless the schedule
+	 * changed since the job was prepared.
+	 * @param job job that was run
+	 * @return true if the schedule was published, false if the job failed or is out of date
+	 */
+	public boolean publishSchedule(ScheduleJob job) {
+		synchronized(lock) {
+			if(!job.isScheduled() || job.getVersion() != version) {
+				return false;
+			}
+			for(Task t : tasks) {
+				t.setTimeStart(-1);
+			}
+			for(Person p : personMap.values()) {
+				p.setTask(null);
+			}
+			if(job.getCached() != null) { // The same inputs were already scheduled.
+				publish(job.getCached(), SchedulingPolicy.SMALLEST_EFFORT);
+			}else{
+				ScheduleResult result = job.getEngine().getResult();
+				if(job.getKey() != null) { resultCache.put(job.getKey(), SchedulingPolicy.SMALLEST_EFFORT, result); }
+				publish(job.getEngine(), result, SchedulingPolicy.SMALLEST_EFFORT);
+			}
+		}
+		fireEvent();
+		return true;
+	}
+
+	/**
+	 * Checks if the tasks or the people changed since the last schedule.
+	 * @return true if scheduleTasks() or prepareSchedule() must compute a new schedule, false otherwise
+	 */
+	public boolean isNewScheduleRequired() {
+		return isNewScheduleRequired;
+	}
+
+	/**
+	 * Computes one schedule per policy in parallel on the common ForkJoinPool and keeps the one with the shortest makespan
+	 * (the first of the policies given in case of a tie). Each worker schedules its own copy of the tasks, taken before the
+	 * workers start, so the lock is not held meanwhile. The policies already scheduled with the same inputs are taken from
+	 * the cache instead, and nothing is copied if every policy is.
+	 * @param policies orders in which the ready tasks may be started
+	 * @return true if successfully created a schedule, false otherwise, including if the schedule changed meanwhile
+	 */
+	public boolean scheduleTasks(SchedulingPolicy... policies) {
+		String key;
+		long jobVersion;
+		synchronized(lock) {
+			if(tasks.isEmpty() || personMap.size() == 0 || policies.length == 0) {
+				return false;
+			}
+			key = resultCache == null ? null : ScheduleCache.keyOf(tasks, personMap.values());
+			jobVersion = version;
+		}
+		ScheduleResult[] cached = new ScheduleResult[policies.length];
+		boolean isCopyRequired = false;
+		for(int i = 0; i < policies.length; i++) {
+			cached[i] = key == null ? null : resultCache.get(key, policies[i]); // May read a file, so outside the lock.
+			isCopyRequired |= cached[i] == null;
+		}
+		TaskSnapshot copy = null;
+		ArrayList<Person> people;
+		synchronized(lock) {
+			if(jobVersion != version) {
+				return false;
 			}
+			if(isCopyRequired) { copy = new TaskSnapshot(tasks); }
+			people = new ArrayList<Person>(personMap.values()); // The engines only read their IDs.
 		}
-		if(!existsInitialTask || personMap.size() == 0) {
+		ArrayList<Callable<ScheduleEngine>> runs = new ArrayList<Callable<ScheduleEngine>>();
+		boolean isCopyTaken = false;
+		for(int i = 0; i < policies.length; i++) {
+			SchedulingPolicy policy = policies[i];
+			if(cached[i] != null) {
+				runs.add(() -> null);
+				continue;
+			}
+			// The first worker takes the copy, the others copy it before any worker writes to it.
+			TaskSnapshot snapshot = isCopyTaken ? new TaskSnapshot(copy) : copy;
+			isCopyTaken = true;
+			runs.add(() -> {
+				ScheduleEngine engine = new ScheduleEngine(snapshot, people, policy);
+				return engine.run() ? engine : null;
+			});
+		}
+		ScheduleEngine best = null;
+		ScheduleResult bestResult = null;
+		SchedulingPolicy bestPolicy = null;
+		double bestMakespan = Double.POSITIVE_INFINITY;
+		try {
+			List<Future<ScheduleEngine>> results = ForkJoinPool.commonPool().invokeAll(runs);
+			for(int i = 0; i < policies.length; i++) {
+				ScheduleEngine engine = results.get(i).get();
+				if(engine == null && cached[i] == null) { return false; } // Every policy fails on a dependency loop.
+				ScheduleResult result = cached[i] != null ? cached[i] : engine.getResult();
+				if(engine != null && key != null) { resultCache.put(key, policies[i], result); }
+				if(result.getMakespan() < bestMakespan) {
+					best = engine;
+					bestResult = result;
+					bestPolicy = policies[i];
+					bestMakespan = result.getMakespan();
+				}
+			}
+		} catch (InterruptedException | ExecutionException e) {
+			e.printStackTrace();
 			return false;
 		}
-		scheduledTasks.clear();
-		for(Task t : tasks) {
-			t.setTimeStart(-1);
+		synchronized(lock) {
+			if(jobVersion != version) {
+				return false;
+			}
+			if(best != null) {
+				publish(best, bestResult, bestPolicy);
+			}else{
+				publish(bestResult, bestPolicy);
+			}
+		}
+		fireEvent();
+		return true;
+	}
+
+	/*
+	 * Replaces the current schedule by the one computed by the engine; the caller holds the lock and fires the event.
+	 */
+	private void publish(ScheduleEngine engine, ScheduleResult result, SchedulingPolicy policy) {
+		publish(engine.getScheduledTasks(), engine.getAssignedTasks(), result, policy);
+	}
+
+	/*
+	 * Replaces the current schedule by a cached result, applied to a copy of the tasks as the engine would have done.
+	 */
+	private void publish(ScheduleResult result, SchedulingPolicy policy) {
+		TaskSnapshot snapshot = new TaskSnapshot(tasks);
+		ArrayList<Task> scheduled = new ArrayList<Task>(result.size());
+		for(int position = 0; position < result.size(); position++) {
+			int id = result.getTaskID(position);
+			Task t = snapshot.getTask(snapshot.indexOf(id));
+			t.setTimeStart(result.getTimeStart(id));
+			t.setReduction(result.getReduction(id));
+			scheduled.add(t);
 		}
+		HashMap<Integer, ArrayList<Task>> assigned = new HashMap<Integer, ArrayList<Task>>();
 		for(Person p : personMap.values()) {
-			p.setTask(null);
-			assignedTasks.get(p.getID()).clear();
-		}
-		// Creates a deep copy of the unscheduled tasks
-		PriorityQueue<Task> schedulingTasks = (PriorityQueue<Task>) deepClone(tasks);
-		while(!schedulingTasks.isEmpty()) { // Check if there are tasks remaining to be scheduled
-			ArrayList<Task> availableTasks = new ArrayList<Task>();
-			PriorityQueue<Task> copyTasks = new PriorityQueue<Task>(schedulingTasks); // Create a copy of the remaining tasks to be scheduled
-			while(!copyTasks.isEmpty()) {
-				Task currentTask = (Task) copyTasks.poll(); // Get the first task that needs to be scheduled
-				ArrayList<Task> dependencyList = currentTask.getDependencies();
-				if(dependencyList.size() == 0) { // Check if the task has no dependencies
-					if(currentTask.getTimeStart() == -1) { // Check if the task has not been started already.
-						boolean isOneEmployeeAvailable = false;
-						for(Person p: personMap.values()) {
-							if(p.getTask() == null && !isOneEmployeeAvailable) {
-								p.setTask(currentTask);
-								assignedTasks.get(p.getID()).add(currentTask);
-								isOneEmployeeAvailable = true;
-							}
-						}
-						if(isOneEmployeeAvailable) {
-							currentTask.setTimeStart(time);
-							availableTasks.add(currentTask);
-						}
-					}else{
-						int numberEmployees = 0;
-						for(Person p: personMap.values()) {
-							if(p.getTask() == currentTask) { numberEmployees++; }
-						}
-						currentTask.setReduction(calculateReduction(numberEmployees)); // Add workload reduction if more people work on the same task.
-						if(time - currentTask.getTimeStart()  >= (currentTask.getEffortEstimate() * currentTask.getReduction())) { // Check if the task has been completed.
-							schedulingTasks.remove((Object)currentTask);
-							for(Person p: personMap.values()) {
-								if(p.getTask() == currentTask) { p.setTask(null); }// Assign no task to the people working on the depending task.
-							}
-							for(Task t: schedulingTasks) {
-								if(t.getDependencies().contains(currentTask)) { t.getDependencies().remove(currentTask); }
-							}
-						}
-					}
-				}
+			int[] ids = result.getAssignedTaskIDs(p.getID());
+			if(ids == null) { ids = new int[0]; }
+			ArrayList<Task> list = new ArrayList<Task>(ids.length);
+			for(int id : ids) {
+				list.add(snapshot.getTask(snapshot.indexOf(id)));
 			}
-			if(!availableTasks.isEmpty()) { // Check if there are tasks available at this iteration
-				int indexTask = 0;
-				for(Person p : personMap.values()) {
-					if(p.getTask() == null) {
-						p.setTask(availableTasks.get(indexTask));
-						assignedTasks.get(p.getID()).add(availableTasks.get(indexTask));
-						indexTask++;
-						if(indexTask >= availableTasks.size()) { indexTask = 0; }// Try to attribute the people remaining to the tasks in a circular approach.
-					}
-				}
-				for(Task t: availableTasks) {
-					scheduledTasks.add(t); // Add to the ArrayList of scheduled tasks.
+			assigned.put(p.getID(), list);
+		}
+		publish(scheduled, assigned, result, policy);
+	}
+
+	private void publish(ArrayList<Task> scheduled, HashMap<Integer, ArrayList<Task>> assigned, ScheduleResult result, SchedulingPolicy policy) {
+		scheduledTasks = Collections.unmodifiableList(scheduled); // Already sorted by start time.
+		assignedTasks = new HashMap<Integer, List<Task>>(assigned.size() * 2);
+		for(Map.Entry<Integer, ArrayList<Task>> entry : assigned.entrySet()) {
+			assignedTasks.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+		}
+		lastResult = result;
+		lastPolicy = policy;
+		invalidFrom = Double.POSITIVE_INFINITY;
+		isNewScheduleRequired = false;
+		version++;
+		event().scheduleChanged();
+	}
+
+	/**
+	 * Looks for a dependency loop among the tasks using a topological sort, in time linear to the number of tasks and dependencies.
+	 * @return the tasks forming a loop, each one being a dependency of the next and the last one a dependency of the first,
+	 * or an empty ArrayList if the dependencies can be ordered
+	 */
+	public ArrayList<Task> findDependencyCycle() {
+		synchronized(lock) {
+			return findDependencyCycle(tasks);
+		}
+	}
+
+	private static ArrayList<Task> findDependencyCycle(Collection<Task> tasks) {
+		Task[] all = tasks.toArray(new Task[tasks.size()]);
+		DependencyGraph graph = new DependencyGraph(Arrays.asList(all)); // Dependencies on tasks outside the schedule cannot be part of a loop.
+		int[] remaining = new int[all.length];
+		for(int i = 0; i < all.length; i++) {
+			remaining[i] = graph.getDependenciesEnd(i) - graph.getDependenciesStart(i);
+		}
+		// Kahn's algorithm: remove the tasks whose dependencies have all been removed.
+		int[] queue = new int[all.length];
+		int head = 0, tail = 0;
+		for(int i = 0; i < all.length; i++) {
+			if(remaining[i] == 0) { queue[tail++] = i; }
+		}
+		while(head < tail) {
+			int task = queue[head++];
+			for(int k = graph.getDependentsStart(task); k < graph.getDependentsEnd(task); k++) {
+				if(--remaining[graph.getDependent(k)] == 0) { queue[tail++] = graph.getDependent(k); }
+			}
+		}
+		ArrayList<Task> cycle = new ArrayList<Task>();
+		if(tail == all.length) {
+			return cycle;
+		}
+		// Every task left has a dependency that is also left, so walking back through them must come round to a visited task.
+		int current = 0;
+		while(remaining[current] == 0) { current++; }
+		int[] visitedAt = new int[all.length];
+		Arrays.fill(visitedAt, -1);
+		ArrayList<Integer> path = new ArrayList<Integer>();
+		while(visitedAt[current] == -1) {
+			visitedAt[current] = path.size();
+			path.add(current);
+			for(int k = graph.getDependenciesStart(current); k < graph.getDependenciesEnd(current); k++) {
+				if(remaining[graph.getDependency(k)] > 0) {
+					current = graph.getDependency(k);
+					break;
 				}
 			}
-			time += 1.0; // Increase time
-			if (time > (tasks.size() * MAX_EFFORT_TASK) + 1) { return false; }
 		}
-		Collections.sort(scheduledTasks, (a,b) -> Double.compare(a.getTimeStart(), b.getTimeStart()));
-		isNewScheduleRequired = false;
-		setChanged();
-		notifyObservers("Schedule");
-		return true;
+		for(int i = path.size() - 1; i >= visitedAt[current]; i--) {
+			cycle.add(all[path.get(i)]);
+		}
+		return cycle;
 	}
 
 	/**
-	* Returns the reduction coefficient calculated based on the number of employees.
-	* @return reduction coefficient
-	*/
-	public double calculateReduction(int numberEmployees) {
-		if(numberEmployees > 1 && numberEmployees <= 5) {
-			return 0.8;
+	 * Computes the earliest start, latest start and slack of every task, and the critical path, from the dependencies and efforts alone
+	 * (as if enough people were always available), with one forward and one backward sweep in O(V+E).
+	 * @return the analysis, indexed like its graph (see CriticalPath.getGraph()), or null if there is a dependency loop
+	 */
+	public CriticalPath computeCriticalPath() {
+		Task[] all;
+		synchronized(lock) {
+			all = tasks.toArray(new Task[tasks.size()]);
 		}
-		else if(numberEmployees > 5 && numberEmployees <= 10) {
-			return 0.75;
+		CriticalPath cpm = new CriticalPath(new DependencyGraph(Arrays.asList(all)));
+		if(!cpm.isAcyclic()) {
+			return null;
 		}
-		else if(numberEmployees > 10 && numberEmployees <= 20) {
-			return 0.7;
+		double[] efforts = new double[all.length];
+		for(int i = 0; i < all.length; i++) {
+			efforts[i] = Math.max(0.0, all[i].getEffortEstimate());
 		}
-		else {
-			return 1.0;
+		cpm.analyse(efforts);
+		return cpm;
+	}
+
+	/**
+	 * Prepares a Monte Carlo simulation of the current tasks and people, which can run on any thread while the schedule keeps changing.
+	 * @param policy order in which the ready tasks are started in every iteration
+	 * @return simulation of the snapshot of the current version, to be given effort ranges and run
+	 */
+	public RiskSimulation createRiskSimulation(SchedulingPolicy policy) {
+		synchronized(lock) {
+			return new RiskSimulation(new TaskSnapshot(tasks), personMap.values(), policy); // Copies the people.
 		}
 	}
+
 	/**
-	 * Returns the ArrayList of scheduled tasks.
-	 * @return ArrayList of scheduled tasks
+	* Returns the reduction coefficient calculated based on the number of employees.
+	* @return reduction coefficient
+	*/
+	public double calculateReduction(int numberEmployees) {
+		return ScheduleEngine.reductionFor(numberEmployees);
+	}
+	/**
+	 * Returns the scheduled tasks, sorted by start time, to be read on the thread making the changes only (see getSnapshot()).
+	 * @return unmodifiable list of scheduled tasks
 	 */
-	public ArrayList<Task> getScheduledTasks() {
+	public List<Task> getScheduledTasks() {
 		return scheduledTasks;
 	}
 
+	/**
+	 * Returns the outcome of the last schedule by task and person ID, including its makespan.
+	 * @return result of the last schedule, or null if no schedule was computed yet
+	 */
+	public ScheduleResult getScheduleResult() {
+		return lastResult;
+	}
+
 	/**
 	 * Returns an ArrayList of the names of the scheduled tasks.
 	 * @return ArrayList of the names of the scheduled tasks
@@ -217,11 +989,11 @@ public class TaskSchedule extends Observable{
 		return tasksName;
 	}
 	/**
-	 * Returns the HashMap of ArrayList of people working on tasks.
-	 * @return HashMap of ArrayList of people working on tasks
+	 * Returns the tasks assigned to each person by person ID, to be read on the thread making the changes only (see getSnapshot()).
+	 * @return unmodifiable view of the tasks assigned to each person
 	 */
-	public HashMap<Integer, ArrayList<Task>> getWorkingPeople() {
-		return assignedTasks;
+	public Map<Integer, List<Task>> getWorkingPeople() {
+		return Collections.unmodifiableMap(assignedTasks);
 	}
 
 	/**
@@ -229,15 +1001,73 @@ public class TaskSchedule extends Observable{
 	 * @param isNewScheduleRequired
 	 */
 	public void setNewScheduleRequired(boolean isNewScheduleRequired) {
-		this.isNewScheduleRequired = isNewScheduleRequired;
+		synchronized(lock) {
+			this.isNewScheduleRequired = isNewScheduleRequired;
+			if(isNewScheduleRequired) {
+				invalidFrom = 0.0;
+				version++;
+			}
+		}
 	}
 
 	/**
-	 * Returns the HashMap of the people in the system
-	 * @return HashMap of the people in the system
+	 * Marks a task whose effort or dependencies changed, or that was added or removed, so that the next schedule
+	 * only recomputes what happens from the earliest time this task could have been ready.
+	 * Every task started before that time keeps its start time and the people assigned to it.
+	 * @param task task that changed
 	 */
-	public HashMap<Integer, Person> getPeople() {
-		return personMap;
+	public void invalidateTask(Task task) {
+		synchronized(lock) {
+			event().taskChanged(task.getID());
+			invalidate(invalidFrom(task));
+		}
+		fireEvent();
+	}
+
+	/*
+	 * Requires a new schedule, recomputed from the given time at the latest; the caller holds the lock.
+	 */
+	private void invalidate(double from) {
+		isNewScheduleRequired = true;
+		version++;
+		invalidFrom = Math.min(invalidFrom, from);
+	}
+
+	/*
+	 * Returns the earliest time a task could have been ready in the last schedule, with its current dependencies.
+	 */
+	private double invalidFrom(Task task) {
+		if(lastResult == null) {
+			return 0.0;
+		}
+		double from = lastResult.hasTask(task.getID()) ? lastResult.getTimeReady(task.getID()) : Double.POSITIVE_INFINITY;
+		double ready = 0.0; // Earliest time the task can be ready with its current dependencies.
+		for(Task d : task.getDependencies()) {
+			if(!lastResult.hasTask(d.getID())) {
+				ready = 0.0;
+				break;
+			}
+			ready = Math.max(ready, lastResult.getTimeEnd(d.getID()));
+		}
+		return Math.min(from, ready);
+	}
+
+	/**
+	 * If set to true (default), changes marked with invalidateTask(Task) only recompute the schedule from the time they take effect.
+	 * If set to false, every new schedule is computed from time 0.
+	 * @param isIncremental
+	 */
+	public void setIncrementalScheduling(boolean isIncremental) {
+		this.isIncremental = isIncremental;
+	}
+
+	/**
+	 * Returns the people in the system by ID, to be read on the thread making the changes only (see getSnapshot()).
+	 * People are added and removed with addPerson, removeAll, setPeople and clearPeople.
+	 * @return unmodifiable view of the people in the system
+	 */
+	public Map<Integer, Person> getPeople() {
+		return Collections.unmodifiableMap(personMap);
 	}
 
 	/**
@@ -245,10 +1075,15 @@ public class TaskSchedule extends Observable{
 	 * @param people ArrayList of people who are able to work on tasks
 	 */
 	public void setPeople(ArrayList<Person> people) {
-		personMap = new HashMap<Integer, Person>();
-		for (Person p : people) {
-			personMap.put(p.getID(), p);
+		synchronized(lock) {
+			personMap = new HashMap<Integer, Person>();
+			for (Person p : people) {
+				personMap.put(p.getID(), p);
+			}
+			version++;
+			event().reset();
 		}
+		fireEvent();
 	}
 
 	/**
@@ -263,103 +1098,268 @@ public class TaskSchedule extends Observable{
 		return ret;
 	}
 	/**
-	 * Returns the priority queue of unscheduled tasks.
-	 * @return PriorityQueue of unscheduled tasks
+	 * Returns the unscheduled tasks, the one at the head having the fewest dependencies, to be read on the thread making
+	 * the changes only (see getSnapshot()). Tasks are added and removed with addTask, removeAll and clearTasks;
+	 * changes made to the tasks themselves must be followed by invalidateTask or setNewScheduleRequired(true).
+	 * @return unmodifiable view of the queue of unscheduled tasks
 	 */
-	public PriorityQueue<Task> getTasks() {
-		return tasks;
+	public Queue<Task> getTasks() {
+		PriorityQueue<Task> queue = tasks; // Replaced by load.
+		return new AbstractQueue<Task>() {
+			@Override
+			public Iterator<Task> iterator() {
+				return Collections.unmodifiableCollection(queue).iterator();
+			}
+
+			@Override
+			public int size() {
+				return queue.size();
+			}
+
+			@Override
+			public boolean offer(Task task) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Task poll() {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Task peek() {
+				return queue.peek();
+			}
+		};
+	}
+
+	/**
+	 * Returns an immutable copy of the tasks, the people and the current schedule, which any thread can read while the
+	 * schedule keeps changing. The copy is taken at most once per version and shared by all the callers of that version.
+	 * @return snapshot of the current version
+	 */
+	public ProjectSnapshot getSnapshot() {
+		synchronized(lock) {
+			if(snapshot == null || snapshot.getVersion() != version) {
+				snapshot = new ProjectSnapshot(version, tasks, personMap.values(), scheduledTasks, assignedTasks, lastResult);
+			}
+			return snapshot;
+		}
+	}
+
+	/**
+	 * Removes every task, so that the next schedule is empty.
+	 */
+	public void clearTasks() {
+		synchronized(lock) {
+			for(Task t : tasks) {
+				event().taskRemoved(t.getID());
+			}
+			tasks.clear();
+			setNewScheduleRequired(true);
+		}
+		fireEvent();
+	}
+
+	/**
+	 * Removes every person, with the tasks assigned to them.
+	 */
+	public void clearPeople() {
+		synchronized(lock) {
+			for(int id : personMap.keySet()) {
+				event().personRemoved(id);
+			}
+			personMap.clear();
+			assignedTasks.clear();
+			setNewScheduleRequired(true);
+		}
+		fireEvent();
 	}
 
 	/*
-	 *Reads files into tasks and people
+	 * Reads the tasks and the people one record at a time, so only the current record is held besides the loaded data.
 	 */
 	private void readFiles(){
+		if(IS_BINARY_SNAPSHOT && isSnapshotCurrent()) {
+			try {
+				BinaryProjectFile snapshot = BinaryProjectFile.read(fileSnapshot);
+				tasks.addAll(snapshot.getTasks());
+				snapshot.getPeople().forEach(person -> addPerson(person));
+				return;
+			} catch (IOException e) {
+				e.printStackTrace(); // Falls back to the JSON files.
+				tasks.clear();
+				personMap.clear();
+				assignedTasks.clear();
+			}
+		}
+
 		//Reading the Tasks.txt
-		String jsonStr = getJsonString(fileTasks);
-		if(jsonStr!=null) {this.tasks = gsonObj.fromJson(jsonStr,  new TypeToken<PriorityQueue<Task>>() {}.getType());}
+		TaskAdapter taskAdapter = new TaskAdapter();
+		readJsonArray(fileTasks, taskAdapter, task -> tasks.add(task));
 
 		//Read from People.txt
-		jsonStr = getJsonString(filePeople);
-		if(jsonStr!=null){
-			ArrayList<Person> adds = gsonObj.fromJson(jsonStr, new TypeToken<ArrayList<Person>>() {}.getType());
-			for(Person person : adds){
-				this.addPerson(person);
-			}
-		}
+		readJsonArray(filePeople, gsonObj.getAdapter(Person.class), person -> addPerson(person));
 
-		try {reader.close(); } catch (IOException e) {e.printStackTrace();}
-		updateTaskDependencies(); //adds task dependencies.
+		updateTaskDependencies(taskAdapter); //adds task dependencies.
 	}
 
-	private String getJsonString(File file){
-		try {
-			reader = new BufferedReader(new FileReader(file));
-			return  reader.readLine();
-		} catch (Exception e) {
+	/*
+	 * The snapshot is used only if it was written after the JSON files, which may have been edited by hand.
+	 */
+	private boolean isSnapshotCurrent(){
+		return fileSnapshot.isFile() && fileSnapshot.lastModified() >= fileTasks.lastModified() && fileSnapshot.lastModified() >= filePeople.lastModified();
+	}
+
+	/*
+	 * Streams the elements of the JSON array stored in the file to the consumer. A missing or empty file is an empty array.
+	 */
+	private <T> void readJsonArray(File file, TypeAdapter<T> adapter, Consumer<T> consumer){
+		if(!file.isFile() || file.length() == 0) return;
+		try(JsonReader reader = new JsonReader(new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)))) {
+			reader.setLenient(true); // Accepts everything Gson.fromJson(String) used to.
+			if(reader.peek() == JsonToken.NULL) return;
+			reader.beginArray();
+			while(reader.hasNext()) {
+				T record = adapter.read(reader);
+				if(record != null) consumer.accept(record);
+			}
+			reader.endArray();
+		} catch (IOException | JsonParseException | IllegalStateException | NumberFormatException e) {
 			e.printStackTrace();
 		}
-		return "";
 	}
 
 	/*
-	* Compute dependencies from dependents and add them to the corresponding Tasks
+	* Links every task read to its dependents and dependencies from the dependent IDs of the file, in O(V+E).
+	* IDs of tasks that were not read are ignored.
 	*/
-	private void updateTaskDependencies(){
+	private void updateTaskDependencies(TaskAdapter taskAdapter){
+		HashMap<Integer, Task> taskById = new HashMap<Integer, Task>(tasks.size() * 2);
+		for(Task task : tasks){
+			taskById.put(task.getID(), task);
+		}
 		for(Task task : tasks){
-			for(Task taskD : tasks){
-				if(taskD.getDependents().contains(task)) task.addDependency(taskD);
+			int[] dependentIds = taskAdapter.getDependentIDs(task.getID());
+			if(dependentIds == null) continue;
+			for(int id : dependentIds){
+				Task dependent = taskById.get(id);
+				if(dependent == null) continue;
+				task.addDependent(dependent);
+				dependent.addDependency(task);
 			}
 		}
 	}
 
 	/**
-	 * Saves the data currently in the system into two files: tasks and people.
+	 * Saves the data currently in the system into two files: tasks and people, on the calling thread.
+	 * Every task is written once, with the IDs of its dependents; the tasks in memory are not modified.
+	 * Each file is written to a temporary file first and then moved over the previous one.
+	 * With planner.binarySnapshot, a binary snapshot is also written next to the tasks file.
+	 * Once both files are written, the journal is emptied.
 	 */
 	public void writeFiles(){
-		//Cleans dependencies for each task
-		tasks.forEach(task -> {task.getDependencies().clear();});
-
-		//write to Tasks.txt
-		writeJson(fileTasks, gsonObj.toJson(this.tasks));
-
-		//write to People.txt
-		writeJson(filePeople, gsonObj.toJson(new ArrayList<Person>(this.personMap.values())));
+		synchronized(lock) { // No change is journaled before the journal is emptied.
+			if(saver.write(this.tasks, this.personMap.values())) {
+				//the journaled changes are now part of the files
+				try {
+					journal.reset();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
 	}
 
-	private void writeJson(File file, String str){
-		try {
-			writer = new BufferedWriter(new FileWriter(file));
-			writer.write(str);
-		} catch (Exception e) {
-			e.printStackTrace();
+	/**
+	 * Saves the data like writeFiles, but from a snapshot written on a background thread, which the application waits for
+	 * before exiting. If several saves are pending, only the latest is written.
+	 * The journaled changes included in the snapshot are then removed from the journal.
+	 * @return true once the files are written, false if they could not be
+	 */
+	public Future<Boolean> writeFilesAsync(){
+		long journalLength;
+		ProjectSnapshot project;
+		synchronized(lock) {
+			journalLength = journal.getLength();
+			project = getSnapshot();
 		}
-		try {writer.close();} catch (IOException e) {e.printStackTrace();}
+		return saver.writeAsync(project, () -> {
+			try {
+				journal.dropUpTo(journalLength);
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		});
 	}
 
 	/**
-	*To Update the view after reading the files.
+	*To Update the view after reading the files: the listeners are told to read every task and person again.
 	*/
 	public void updateView(){
-		 setChanged();
-		 notifyObservers("Tasks");
+		synchronized(lock) {
+			event().reset();
+		}
+		fireEvent();
+	}
+
+	/**
+	 * Adds a listener told about every later change.
+	 * @param listener listener to be added
+	 */
+	public void addListener(ScheduleListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener.
+	 * @param listener listener to be removed
+	 */
+	public void removeListener(ScheduleListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Sets how the delivery of the changes to the listeners is run. By default it runs on the thread making each change,
+	 * as soon as the change is complete. With Platform::runLater, every change made until the next pulse is coalesced
+	 * into one event delivered on the JavaFX thread.
+	 * @param dispatcher runs the delivery
+	 */
+	public void setEventDispatcher(Executor dispatcher) {
+		this.eventDispatcher = dispatcher;
 	}
 
 	/*
-	 * Creates a deep clone of any object passed in. The clone will have its own
-	 * memory references to any attribute that existed in the original.
+	 * Returns the event collecting the changes not delivered yet; the caller holds the lock.
 	 */
-	private Object deepClone(Object object) {
-		try {
-			ByteArrayOutputStream baos = new ByteArrayOutputStream();
-			ObjectOutputStream oos = new ObjectOutputStream(baos);
-			oos.writeObject(object);
-			ByteArrayInputStream bais = new ByteArrayInputStream(baos.toByteArray());
-			ObjectInputStream ois = new ObjectInputStream(bais);
-			return ois.readObject();
-		}
-		catch (Exception e) {
-			e.printStackTrace();
-			return null;
+	private ScheduleEvent event() {
+		if(pendingEvent == null) pendingEvent = new ScheduleEvent();
+		return pendingEvent;
+	}
+
+	/*
+	 * Asks the dispatcher to deliver the pending event, unless it was already asked and has not run yet.
+	 * A change made by another one, like addPerson during importProject, leaves it to the outer change.
+	 */
+	private void fireEvent() {
+		if(Thread.holdsLock(lock)) return;
+		synchronized(lock) {
+			if(pendingEvent == null || isDeliveryScheduled) return;
+			isDeliveryScheduled = true;
+		}
+		eventDispatcher.execute(this::deliverEvent);
+	}
+
+	private void deliverEvent() {
+		ScheduleEvent event;
+		synchronized(lock) {
+			event = pendingEvent;
+			pendingEvent = null;
+			isDeliveryScheduled = false;
+		}
+		if(event == null) return;
+		for(ScheduleListener listener : listeners) {
+			listener.scheduleChanged(event);
 		}
 	}
 
@@ -0,0 +1,108 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * ID-indexed structural copy of a set of tasks, taken before scheduling so that the scheduler works on its own
+ * tasks instead of the originals.
+ * Each task is copied once and the dependencies are re-linked between the copies through a DependencyGraph,
+ * so taking a snapshot costs O(V+E).
+ *
+ */
+public class TaskSnapshot {
+
+	private final Task[] tasks;
+	private final DependencyGraph graph;
+
+	/**
+	 * Copies the given tasks and the dependencies between them.
+	 * @param originals tasks to be copied
+	 */
+	public TaskSnapshot(Collection<Task> originals) {
+		graph = new DependencyGraph(originals);
+		int n = graph.size();
+		tasks = new Task[n];
+		int i = 0;
+		for(Task t : originals) {
+			tasks[i++] = new Task(t);
+		}
+		link();
+	}
+
+	/**
+	 * Copies the tasks of another snapshot, sharing its dependency graph, which is never modified.
+	 * The dependencies on tasks outside the original tasks are still counted by getDependencyCount.
+	 * @param other snapshot to be copied
+	 */
+	public TaskSnapshot(TaskSnapshot other) {
+		graph = other.graph;
+		tasks = new Task[other.tasks.length];
+		for(int i = 0; i < tasks.length; i++) {
+			tasks[i] = new Task(other.tasks[i]);
+		}
+		link();
+	}
+
+	/*
+	 * Re-links the dependencies between the copies, following the graph.
+	 */
+	private void link() {
+		for(int i = 0; i < tasks.length; i++) {
+			ArrayList<Task> copiedDependencies = new ArrayList<Task>(graph.getDependenciesEnd(i) - graph.getDependenciesStart(i));
+			for(int k = graph.getDependenciesStart(i); k < graph.getDependenciesEnd(i); k++) {
+				copiedDependencies.add(tasks[graph.getDependency(k)]);
+			}
+			tasks[i].setDependencies(copiedDependencies);
+			ArrayList<Task> copiedDependents = new ArrayList<Task>(graph.getDependentsEnd(i) - graph.getDependentsStart(i));
+			for(int k = graph.getDependentsStart(i); k < graph.getDependentsEnd(i); k++) {
+				copiedDependents.add(tasks[graph.getDependent(k)]);
+			}
+			tasks[i].setDependents(copiedDependents);
+		}
+	}
+
+	/**
+	 * Returns the number of tasks in the snapshot.
+	 * @return number of tasks
+	 */
+	public int size() {
+		return tasks.length;
+	}
+
+	/**
+	 * Returns the copy of the task at the given index.
+	 * @param index index of the task, between 0 and size() - 1
+	 * @return copied task
+	 */
+	public Task getTask(int index) {
+		return tasks[index];
+	}
+
+	/**
+	 * Returns the index of the task with the given ID.
+	 * @param taskId ID of the task
+	 * @return index of the task, or -1 if the task is not in the snapshot
+	 */
+	public int indexOf(int taskId) {
+		return graph.indexOf(taskId);
+	}
+
+	/**
+	 * Returns the number of dependencies of a task, including the ones on tasks outside the snapshot.
+	 * @param index index of the task
+	 * @return number of dependencies
+	 */
+	public int getDependencyCount(int index) {
+		return graph.getDependencyCount(index);
+	}
+
+	/**
+	 * Returns the dependencies between the copied tasks, indexed like the snapshot.
+	 * @return dependency graph of the snapshot
+	 */
+	public DependencyGraph getGraph() {
+		return graph;
+	}
+
+}
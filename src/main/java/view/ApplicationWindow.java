@@ -4,13 +4,20 @@ import java.io.File;
 
 import control.NavigationController;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.image.Image;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import model.TaskSchedule;
 
@@ -40,7 +47,8 @@ public class ApplicationWindow extends Application {
      */
     public void start(Stage primaryStage) {
         this.window = primaryStage;
-        schedule = new TaskSchedule();
+        schedule = TaskSchedule.createLoading(); // The project is read by loadProject.
+        schedule.setEventDispatcher(Platform::runLater); // The changes made until the next pulse reach the panes as one event.
         panes = new Panes(schedule);
         mainLayout = new BorderPane();
         navController = new NavigationController(panes, mainLayout, schedule);
@@ -52,17 +60,68 @@ public class ApplicationWindow extends Application {
         window.setMinHeight(500);
         window.setMinWidth(800);
         window.show();
-        window.setOnCloseRequest(navWindowListener);
+        loadProject();
+    }
+
+    /*
+     * Reads the project on a background thread while a loading indicator is shown, then publishes it to the
+     * schedule on the application thread. The navigation and the exit dialog are only enabled once it is loaded,
+     * so that the empty schedule shown meanwhile is never saved.
+     */
+    private void loadProject(){
+        Task<TaskSchedule> load = new Task<TaskSchedule>() {
+            @Override
+            protected TaskSchedule call() {
+                return new TaskSchedule();
+            }
+        };
+        load.setOnSucceeded(event -> {
+            schedule.load(load.getValue());
+            int recovered = schedule.openJournal(); // Every change is written as soon as it is made.
+            hboxTop.setDisable(false);
+            mainLayout.setCenter(panes.getPersonFormPane());
+            window.setOnCloseRequest(navWindowListener);
+            if(recovered > 0){
+                Alert alert = new Alert(AlertType.INFORMATION);
+                alert.setTitle("Task Scheduling Application");
+                alert.setHeaderText(null);
+                alert.setContentText(recovered + " unsaved change(s) from the previous session were recovered.");
+                alert.showAndWait();
+            }
+        });
+        load.setOnFailed(event -> {
+            load.getException().printStackTrace();
+            Alert alert = new Alert(AlertType.ERROR);
+            alert.setTitle("Task Scheduling Application");
+            alert.setHeaderText(null);
+            alert.setContentText("The project could not be loaded: " + load.getException());
+            alert.showAndWait();
+            Platform.exit();
+        });
+        Thread thread = new Thread(load, "Project loader");
+        thread.setDaemon(true); // Closing the window while loading does not wait for it.
+        thread.start();
     }
 
     private void initWidgets(){
         setHeader();
         addListeners();
-        mainLayout.setCenter(panes.getPersonFormPane());
+        hboxTop.setDisable(true);
+        mainLayout.setCenter(setUpAndGetLoadingPane());
         scene = new Scene(mainLayout, 800, 500);
         scene.getStylesheets().add("file:///" + new File("src/main/java/view/Style.css").getAbsolutePath().replace("\\", "/"));
     }
     
+    /*
+     * Sets up the indicator shown while the project is loaded
+     */
+    private VBox setUpAndGetLoadingPane(){
+        ProgressIndicator indicator = new ProgressIndicator();
+        VBox loadingPane = new VBox(10, indicator, new Label("Loading project..."));
+        loadingPane.setAlignment(Pos.CENTER);
+        return loadingPane;
+    }
+
     /*
      * Sets up the navigation bar
      */
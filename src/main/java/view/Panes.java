@@ -1,6 +1,5 @@
 package view;
 
-import java.util.Observable;
 import javafx.beans.binding.BooleanBinding;
 import javafx.beans.property.DoubleProperty;
 import javafx.beans.property.SimpleDoubleProperty;
@@ -21,11 +20,15 @@ import javafx.scene.text.Font;
 import javafx.scene.chart.XYChart.Series;
 import javafx.scene.chart.XYChart.Data;
 import model.Person;
+import model.ScheduleEvent;
+import model.ScheduleListener;
 import model.Task;
 import model.TaskSchedule;
 
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Observer;
+import java.util.List;
+import java.util.Set;
 import java.util.Random;
 
 import control.DependencyListeners;
@@ -40,9 +43,10 @@ import view.GanttChart.ExtraData;
  * Also updates the dependency pane and schedule pane whenever new data is inserted into the system.
  *
  */
-public class Panes implements Observer{
+public class Panes implements ScheduleListener{
 
 	private final int MAX_INPUT = 28;
+	private final int MAX_CHART_ROWS = Integer.getInteger("planner.maxChartRows", 500);
 
 	private GridPane personFormPane;
 	private GridPane taskFormPane;
@@ -71,12 +75,12 @@ public class Panes implements Observer{
 	
 	/**
  	 * Sets up the person form, task form, dependency, and schedule panes.
- 	 * Observes the passed in task scheduler, and calls update on it. This is to ensure that the panes
+ 	 * Listens to the passed in task scheduler, and asks it to reset the view. This is to ensure that the panes
  	 * are displaying the correct information in the event that data was loaded from a previous session.
  	 * @param taskSchedule
  	 */
 	public Panes(TaskSchedule taskSchedule){
-		this.schedule = taskSchedule; schedule.addObserver(this);
+		this.schedule = taskSchedule; schedule.addListener(this);
 
 		this.personFormPane = setUpAndGetPersonForm();
 		this.taskFormPane = setUpAndGetTaskForm();
@@ -293,53 +297,65 @@ public class Panes implements Observer{
 	}
 	
 	/**
-	 * Interprets why the update was sent using the argument passed in and
-	 * acts accordingly.
-	 * If the argument passed in was "Tasks", then it means that the view should update
-	 * the dependency pane's widgets.
-	 * If the argument passed in was "Schedule", then it means that there is new data
-	 * and that the view should update the Gantt chart on the schedule pane.
+	 * Applies the changes carried by the event.
+	 * If tasks were added or removed, only those are added to or removed from the dependency pane's task list;
+	 * after a reset the whole list is filled again.
+	 * If a new schedule was published, the view updates the Gantt chart on the schedule pane. At most planner.maxChartRows
+	 * (default 500) tasks and people are drawn.
 	 * @Override
 	 */
-	public void update(Observable arg0, Object arg1) {
-		String type = (String) arg1;
-
-		if(type.equals("Tasks")){
-			cbTasks.getItems().clear();
-			cbTasks.getItems().addAll(schedule.getTasks());
+	public void scheduleChanged(ScheduleEvent event) {
+		if(event.isReset()){
+			cbTasks.getItems().setAll(schedule.getTasks());
+		}else if(event.isTaskListChanged()){
+			Set<Integer> removed = event.getRemovedTaskIds();
+			if(!removed.isEmpty()) cbTasks.getItems().removeIf(t -> removed.contains(t.getID()));
+			cbTasks.getItems().addAll(event.getAddedTasks());
+		}
+		if(event.isTaskListChanged()){
 			lvTasks.setVisible(false); lvDependencies.setVisible(false);
 		}
-		if(type.equals("Schedule")) {
+		if(event.isScheduleChanged()) {
+			List<Task> scheduledTasks = schedule.getScheduledTasks();
+			int taskRows = Math.min(scheduledTasks.size(), MAX_CHART_ROWS); // Only the first tasks to start are drawn.
 			chartTasks.getData().clear();
-			chartTasks.setBlockHeight(calculateRelativeFontSize(schedule.getTasks().size()));
-			yAxisTasks.getCategories().clear();
-			yAxisTasks.getCategories().addAll(FXCollections.<String>observableArrayList(schedule.getScheduledTasksName()));
-			yAxisTasks.setTickLabelFont(new Font(calculateRelativeFontSize(schedule.getTasks().size())));
+			chartTasks.setTitle(taskRows < scheduledTasks.size() ? "Task Scheduling (first " + taskRows + " of " + scheduledTasks.size() + " tasks)" : "Task Scheduling");
+			chartTasks.setBlockHeight(calculateRelativeFontSize(taskRows));
+			ArrayList<String> taskNames = new ArrayList<String>(taskRows);
 			HashMap<Integer, String> idToColor = new HashMap<Integer, String>();
-			for(Task t : schedule.getScheduledTasks()) {
-				idToColor.put(t.getID(), "#000000");
-			}
-			for(Task t : schedule.getScheduledTasks()) {
-				Random rand = new Random();
-				idToColor.put(t.getID(), String.format("#%06X", rand.nextInt(0x1000000)));
-				Series taskSeries = new Series();
+			Random rand = new Random();
+			Series taskSeries = new Series();
+			for(int i = 0; i < taskRows; i++) {
+				Task t = scheduledTasks.get(i);
 				String nameString = "Task " + t.getName() + " (ID: " + t.getID() + ")";
-				taskSeries.getData().add(new Data(t.getTimeStart(), schedule.getScheduledTasksName().get(schedule.getScheduledTasksName().indexOf(nameString)), new ExtraData(t.getEffortEstimate()*t.getReduction(), "-fx-background-color: " + idToColor.get(t.getID()) + ";")));
-				chartTasks.getData().add(taskSeries);
+				taskNames.add(nameString);
+				idToColor.put(t.getID(), String.format("#%06X", rand.nextInt(0x1000000)));
+				taskSeries.getData().add(new Data(t.getTimeStart(), nameString, new ExtraData(t.getEffortEstimate()*t.getReduction(), "-fx-background-color: " + idToColor.get(t.getID()) + ";")));
 			}
+			yAxisTasks.getCategories().setAll(taskNames);
+			yAxisTasks.setTickLabelFont(new Font(calculateRelativeFontSize(taskRows)));
+			chartTasks.getData().add(taskSeries);
+
+			int peopleRows = Math.min(schedule.getPeople().size(), MAX_CHART_ROWS);
 			chartPeople.getData().clear();
-			chartPeople.setBlockHeight(calculateRelativeFontSize(schedule.getPeople().size()));
-			yAxisPeople.getCategories().clear();
-			yAxisPeople.getCategories().addAll(FXCollections.<String>observableArrayList(schedule.getWorkingPeopleName()));
-			yAxisPeople.setTickLabelFont(new Font(calculateRelativeFontSize(schedule.getPeople().size())));
+			chartPeople.setTitle(peopleRows < schedule.getPeople().size() ? "Team allocation on tasks (first " + peopleRows + " of " + schedule.getPeople().size() + " people)" : "Team allocation on tasks");
+			chartPeople.setBlockHeight(calculateRelativeFontSize(peopleRows));
+			ArrayList<String> peopleNames = new ArrayList<String>(peopleRows);
+			Series peopleSeries = new Series();
 			for(Person p : schedule.getPeople().values()) {
+				if(peopleNames.size() == peopleRows) break;
 				String nameString = p.getFirstName() + " " + p.getLastName() + " (ID: " + p.getID() + ")";
-				for(Task t : schedule.getWorkingPeople().get(p.getID())) {
-					Series taskSeries = new Series();
-					taskSeries.getData().add(new Data(t.getTimeStart(), schedule.getWorkingPeopleName().get(schedule.getWorkingPeopleName().indexOf(nameString)), new ExtraData(t.getEffortEstimate()*t.getReduction()-0.2, "-fx-background-color: " + idToColor.get(t.getID()) + ";")));
-					chartPeople.getData().add(taskSeries);
+				peopleNames.add(nameString);
+				List<Task> assigned = schedule.getWorkingPeople().get(p.getID());
+				if(assigned == null) continue;
+				for(Task t : assigned) {
+					String color = idToColor.computeIfAbsent(t.getID(), id -> String.format("#%06X", rand.nextInt(0x1000000)));
+					peopleSeries.getData().add(new Data(t.getTimeStart(), nameString, new ExtraData(t.getEffortEstimate()*t.getReduction()-0.2, "-fx-background-color: " + color + ";")));
 				}
 			}
+			yAxisPeople.getCategories().setAll(peopleNames);
+			yAxisPeople.setTickLabelFont(new Font(calculateRelativeFontSize(peopleRows)));
+			chartPeople.getData().add(peopleSeries);
 		}
 	}
 
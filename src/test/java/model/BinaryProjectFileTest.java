@@ -0,0 +1,84 @@
+package model;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.HashMap;
+import model.Task;
+import model.Person;
+import model.BinaryProjectFile;
+
+public class BinaryProjectFileTest extends TestDataGenerator {
+
+    private File tempFile() throws IOException {
+        File file = File.createTempFile("project", ".bin");
+        file.deleteOnExit();
+        return file;
+    }
+
+    @Test (timeout = 1000)
+    public void testWriteRead() throws IOException {
+
+        ArrayList<Task> tasks = randomTaskArray(200);
+        for (int i = 0; i < tasks.size() - 1; i++) {
+            for (int j = 0; j < randInt(4); j++) {
+                link(tasks.get(i), tasks.get(randInt(i + 1, tasks.size() - 1)));
+            }
+        }
+        tasks.get(3).setTimeStart(12.0);
+        tasks.get(3).setReduction(0.75);
+        tasks.add(getTask("T\u00e2che \u00e9t\u00e9", 4.5));
+        ArrayList<Person> people = new ArrayList<Person>();
+        people.add(getPerson("Ada", "Lovelace", "ada@example.com"));
+        people.add(getPerson("Grace", "Hopper", "not an email"));
+
+        File file = tempFile();
+        BinaryProjectFile.write(file, tasks, people);
+        BinaryProjectFile read = BinaryProjectFile.read(file);
+
+        assertEquals(tasks.size(), read.getTasks().size());
+        HashMap<Integer, Task> readById = new HashMap<Integer, Task>();
+        for (Task t : read.getTasks())
+            readById.put(t.getID(), t);
+        for (Task t : tasks) {
+            Task r = readById.get(t.getID());
+            assertEquals(t.getName(), r.getName());
+            assertEquals(t.getEffortEstimate(), r.getEffortEstimate(), 0.0);
+            assertEquals(t.getTimeStart(), r.getTimeStart(), 0.0);
+            assertEquals(t.getReduction(), r.getReduction(), 0.0);
+            assertEquals(t.getDependencies().size(), r.getDependencies().size());
+            assertEquals(t.getDependents().size(), r.getDependents().size());
+            for (Task d : t.getDependencies())
+                assertEquals(true, r.getDependencies().contains(readById.get(d.getID())));
+        }
+
+        assertEquals(2, read.getPeople().size());
+        assertEquals("Ada", read.getPeople().get(0).getFirstName());
+        assertEquals("ada@example.com", read.getPeople().get(0).getEmail());
+        assertEquals(people.get(1).getID(), read.getPeople().get(1).getID());
+        assertEquals(null, read.getPeople().get(1).getEmail());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testTruncated() throws IOException {
+
+        File file = tempFile();
+        BinaryProjectFile.write(file, randomTaskArray(10), new ArrayList<Person>());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(raf.length() - 1);
+        }
+
+        try {
+            BinaryProjectFile.read(file);
+            fail("a truncated snapshot must not be read");
+        } catch (IOException e) {
+            // expected
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package model;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import model.Task;
+import model.CriticalPath;
+import model.DependencyGraph;
+
+public class CriticalPathTest extends TestDataGenerator {
+
+    @Test (timeout = 100)
+    public void testDiamond() {
+
+        // a -> b -> d, a -> c -> d
+        Task a = getTask("a", 2.0);
+        Task b = getTask("b", 5.0);
+        Task c = getTask("c", 1.0);
+        Task d = getTask("d", 3.0);
+        link(a, b);
+        link(a, c);
+        link(b, d);
+        link(c, d);
+
+        ArrayList<Task> tasks = new ArrayList<Task>(Arrays.asList(d, c, b, a));
+        DependencyGraph graph = new DependencyGraph(tasks);
+        CriticalPath cpm = new CriticalPath(graph);
+        assertEquals(true, cpm.isAcyclic());
+
+        double[] durations = new double[tasks.size()];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = tasks.get(i).getEffortEstimate();
+        }
+        cpm.analyse(durations);
+
+        assertEquals(10.0, cpm.getMakespan(), 1e-9);
+        assertEquals(2.0, cpm.getEarliestStart(graph.indexOf(c.getID())), 1e-9);
+        assertEquals(6.0, cpm.getLatestStart(graph.indexOf(c.getID())), 1e-9);
+        assertEquals(4.0, cpm.getSlack(graph.indexOf(c.getID())), 1e-9);
+        assertEquals(false, cpm.isCritical(graph.indexOf(c.getID())));
+        assertEquals(true, cpm.isCritical(graph.indexOf(b.getID())));
+
+        int[] path = cpm.getCriticalPath();
+        assertEquals(3, path.length);
+        assertEquals(a.getID(), graph.getID(path[0]));
+        assertEquals(b.getID(), graph.getID(path[1]));
+        assertEquals(d.getID(), graph.getID(path[2]));
+
+    }
+
+    @Test (timeout = 1000)
+    public void testSlackNeverNegative() {
+
+        ArrayList<Task> tasks = randomTaskArray(200);
+        for (int i = 0; i < tasks.size() - 1; i++) {
+            for (int j = 0; j < randInt(4); j++) {
+                link(tasks.get(i), tasks.get(randInt(i + 1, tasks.size() - 1)));
+            }
+        }
+
+        DependencyGraph graph = new DependencyGraph(tasks);
+        CriticalPath cpm = new CriticalPath(graph);
+        double[] durations = new double[tasks.size()];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = tasks.get(i).getEffortEstimate();
+        }
+        cpm.analyse(durations);
+
+        for (int i = 0; i < graph.size(); i++) {
+            assertEquals(true, cpm.getSlack(i) > -1e-6);
+        }
+        assertEquals(true, cpm.getCriticalPath().length > 0);
+
+    }
+
+    @Test (timeout = 100)
+    public void testLoop() {
+
+        ArrayList<Task> tasks = randomTaskArray(3);
+        link(tasks.get(0), tasks.get(1));
+        link(tasks.get(1), tasks.get(0));
+
+        assertEquals(false, new CriticalPath(new DependencyGraph(tasks)).isAcyclic());
+
+    }
+
+}
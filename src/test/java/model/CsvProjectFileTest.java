@@ -0,0 +1,103 @@
+package model;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import model.Task;
+import model.Person;
+
+public class CsvProjectFileTest extends TestDataGenerator {
+
+    private File tempFile(String content) throws IOException {
+        File file = File.createTempFile("project", ".csv");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    @Test (timeout = 1000)
+    public void testRead() throws IOException {
+
+        File tasks = tempFile("\uFEFFEffort,ID,Name,Status\r\n"
+                + "2.5,1,\"Design, review\",open\r\n"
+                + "4,2,\"Say \"\"hi\"\"\nand go\",done\r\n"
+                + "\r\n"
+                + "1,3,Ship,open\r\n");
+        File people = tempFile("id,first_name,last_name,email\n7,Ann,Lee,ann@lee.org\n8,Bo,Ray,\n");
+        File dependencies = tempFile("task,dependency\n2,1\n3,2\n");
+
+        CsvProjectFile read = CsvProjectFile.read(tasks, people, dependencies);
+
+        assertEquals(3, read.getTasks().size());
+        assertEquals("Design, review", read.getTasks().get(0).getName());
+        assertEquals("Say \"hi\"\nand go", read.getTasks().get(1).getName());
+        assertEquals(4.0, read.getTasks().get(1).getEffortEstimate(), 0.0);
+        assertEquals(3, read.getTasks().get(2).getID());
+        assertEquals(2, read.getPeople().size());
+        assertEquals("ann@lee.org", read.getPeople().get(0).getEmail());
+        assertNull(read.getPeople().get(1).getEmail());
+        assertArrayEquals(new int[] {2, 1, 3, 2}, read.getDependencies());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testInvalidRecord() throws IOException {
+
+        File tasks = tempFile("id,name,effort\n1,a,1\n2,\"b\nc\",x\n");
+        try {
+            CsvProjectFile.read(tasks, null, null);
+            fail("The effort is not a number");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("line 3"));
+        }
+
+        try {
+            CsvProjectFile.read(tempFile("id,name\n1,a\n"), null, null);
+            fail("The effort column is missing");
+        } catch (IOException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("effort"));
+        }
+
+    }
+
+    @Test (timeout = 10000)
+    public void testWriteRead() throws IOException {
+
+        ArrayList<Task> tasks = randomTaskArray(20000); // several chunks
+        tasks.set(0, getTask("Quoted, \"name\"", 3.0));
+        for (int i = 1; i < tasks.size(); i++) {
+            tasks.get(i).addDependency(tasks.get(i / 2));
+            tasks.get(i / 2).addDependent(tasks.get(i));
+        }
+        ArrayList<Person> people = new ArrayList<Person>();
+        for (int i = 0; i < 10; i++)
+            people.add(randomPerson());
+
+        File fileTasks = tempFile(""), filePeople = tempFile(""), fileDependencies = tempFile("");
+        CsvProjectFile.write(fileTasks, filePeople, fileDependencies, tasks, people);
+        CsvProjectFile read = CsvProjectFile.read(fileTasks, filePeople, fileDependencies);
+
+        assertEquals(tasks.size(), read.getTasks().size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getID(), read.getTasks().get(i).getID());
+            assertEquals(tasks.get(i).getName(), read.getTasks().get(i).getName());
+            assertEquals(tasks.get(i).getEffortEstimate(), read.getTasks().get(i).getEffortEstimate(), 0.0);
+        }
+        assertEquals(people.size(), read.getPeople().size());
+        assertEquals(people.get(3).getLastName(), read.getPeople().get(3).getLastName());
+        HashMap<Integer, Integer> dependencyOf = new HashMap<Integer, Integer>();
+        int[] edges = read.getDependencies();
+        for (int i = 0; i < edges.length; i += 2)
+            dependencyOf.put(edges[i], edges[i + 1]);
+        assertEquals(tasks.size() - 1, dependencyOf.size());
+        for (int i = 1; i < tasks.size(); i++)
+            assertEquals(tasks.get(i / 2).getID(), (int) dependencyOf.get(tasks.get(i).getID()));
+
+    }
+
+}
@@ -0,0 +1,77 @@
+package model;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.ArrayList;
+import model.Task;
+import model.DependencyGraph;
+
+public class DependencyGraphTest extends TestDataGenerator {
+
+    private ArrayList<Task> randomGraph(int n, int maxLinks) {
+        ArrayList<Task> tasks = randomTaskArray(n);
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = 0; j < randInt(maxLinks); j++) {
+                link(tasks.get(i), tasks.get(randInt(i + 1, n - 1)));
+            }
+        }
+        return tasks;
+    }
+
+    @Test (timeout = 1000)
+    public void testRows() {
+
+        ArrayList<Task> tasks = randomGraph(200, 30);
+        DependencyGraph graph = new DependencyGraph(tasks);
+
+        assertEquals(tasks.size(), graph.size());
+
+        int edges = 0;
+        for (int i = 0; i < graph.size(); i++) {
+            Task t = tasks.get(graph.indexOf(tasks.get(i).getID()));
+            assertEquals(t.getID(), graph.getID(i));
+            assertEquals(t.getDependencies().size(), graph.getDependenciesEnd(i) - graph.getDependenciesStart(i));
+            assertEquals(t.getDependents().size(), graph.getDependentsEnd(i) - graph.getDependentsStart(i));
+            for (int k = graph.getDependenciesStart(i); k < graph.getDependenciesEnd(i); k++) {
+                assertEquals(true, t.hasDependency(tasks.get(graph.getDependency(k))));
+            }
+            for (int k = graph.getDependentsStart(i); k < graph.getDependentsEnd(i); k++) {
+                assertEquals(true, t.hasDependent(tasks.get(graph.getDependent(k))));
+            }
+            edges += t.getDependencies().size();
+        }
+        assertEquals(edges, graph.getEdgeCount());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testHasDependency() {
+
+        ArrayList<Task> tasks = randomGraph(100, 20);
+        DependencyGraph graph = new DependencyGraph(tasks);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            for (int j = 0; j < tasks.size(); j++) {
+                assertEquals(tasks.get(i).getDependencies().contains(tasks.get(j)), graph.hasDependency(i, j));
+            }
+        }
+
+    }
+
+    @Test (timeout = 100)
+    public void testOutsideDependency() {
+
+        ArrayList<Task> tasks = randomTaskArray(3);
+        Task outside = randomTask();
+        link(outside, tasks.get(1));
+        link(tasks.get(0), tasks.get(1));
+
+        DependencyGraph graph = new DependencyGraph(tasks);
+
+        assertEquals(-1, graph.indexOf(outside.getID()));
+        assertEquals(2, graph.getDependencyCount(1));
+        assertEquals(1, graph.getEdgeCount());
+
+    }
+
+}
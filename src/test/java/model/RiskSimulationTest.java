@@ -0,0 +1,118 @@
+package model;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.ArrayList;
+import model.Task;
+import model.Person;
+import model.RiskSimulation;
+import model.ScheduleEngine;
+import model.SchedulingPolicy;
+import model.TaskSnapshot;
+
+public class RiskSimulationTest extends TestDataGenerator {
+
+    private ArrayList<Task> randomProject(int n) {
+        ArrayList<Task> tasks = randomTaskArray(n);
+        for (int i = 1; i < n; i++) {
+            for (int j = 0; j < randInt(3); j++) {
+                Task dependency = tasks.get(randInt(Math.max(0, i - 20), i - 1));
+                if (!tasks.get(i).hasDependency(dependency)) {
+                    link(dependency, tasks.get(i));
+                }
+            }
+        }
+        return tasks;
+    }
+
+    @Test (timeout = 1000)
+    public void testEstimatesOnly() {
+
+        // a -> b -> d, c alone: with two people, c is never critical
+        Task a = getTask("a", 2.0);
+        Task b = getTask("b", 5.0);
+        Task c = getTask("c", 1.0);
+        Task d = getTask("d", 3.0);
+        link(a, b);
+        link(b, d);
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        tasks.add(d);
+        tasks.add(c);
+        tasks.add(b);
+        tasks.add(a);
+        ArrayList<Person> people = randomPeople(2);
+
+        ScheduleEngine engine = new ScheduleEngine(new TaskSnapshot(tasks), people);
+        assertEquals(true, engine.run());
+        double makespan = engine.getResult().getMakespan();
+        assertEquals(makespan, engine.sample(new double[] {3.0, 1.0, 5.0, 2.0}), 0.0); // same efforts, same schedule
+
+        RiskSimulation simulation = new RiskSimulation(new TaskSnapshot(tasks), people, SchedulingPolicy.SMALLEST_EFFORT);
+        assertEquals(true, simulation.run(200, 1L));
+        assertEquals(200, simulation.getIterations());
+        assertEquals(makespan, simulation.getMakespanPercentile(50), 0.0);
+        assertEquals(makespan, simulation.getMakespanPercentile(95), 0.0);
+        assertEquals(1.0, simulation.getCriticalityIndex(a.getID()), 0.0);
+        assertEquals(1.0, simulation.getCriticalityIndex(d.getID()), 0.0);
+        assertEquals(0.0, simulation.getCriticalityIndex(c.getID()), 0.0);
+        assertEquals(-1.0, a.getTimeStart(), 0.0); // the originals are not modified
+
+    }
+
+    @Test (timeout = 10000)
+    public void testSameSeedSameOutcome() {
+
+        ArrayList<Task> tasks = randomProject(300);
+        ArrayList<Person> people = randomPeople(5);
+        TaskSnapshot snapshot = new TaskSnapshot(tasks);
+
+        RiskSimulation sequential = new RiskSimulation(snapshot, people, SchedulingPolicy.SMALLEST_EFFORT);
+        sequential.setEffortRanges(0.5, 2.0);
+        sequential.setParallelism(1);
+        assertEquals(true, sequential.run(500, 42L));
+        RiskSimulation parallel = new RiskSimulation(snapshot, people, SchedulingPolicy.SMALLEST_EFFORT);
+        parallel.setEffortRanges(0.5, 2.0);
+        parallel.setParallelism(4);
+        assertEquals(true, parallel.run(500, 42L));
+
+        assertTrue(sequential.getMakespanPercentile(50) <= sequential.getMakespanPercentile(80));
+        assertTrue(sequential.getMakespanPercentile(80) <= sequential.getMakespanPercentile(95));
+        assertTrue(sequential.getMakespanPercentile(0) < sequential.getMakespanPercentile(100)); // the efforts vary
+        for (double p : new double[] {50, 80, 95}) {
+            assertEquals(sequential.getMakespanPercentile(p), parallel.getMakespanPercentile(p), 0.0);
+        }
+        for (Task t : tasks) {
+            double index = sequential.getCriticalityIndex(t.getID());
+            assertTrue(index >= 0.0 && index <= 1.0);
+            assertEquals(index, parallel.getCriticalityIndex(t.getID()), 0.0);
+        }
+
+    }
+
+    @Test (timeout = 1000)
+    public void testDependencyLoop() {
+
+        Task a = getTask("a", 2.0);
+        Task b = getTask("b", 3.0);
+        Task c = getTask("c", 1.0);
+        link(a, b);
+        link(b, a);
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        tasks.add(a);
+        tasks.add(b);
+        tasks.add(c);
+
+        RiskSimulation simulation = new RiskSimulation(new TaskSnapshot(tasks), randomPeople(1), SchedulingPolicy.SMALLEST_EFFORT);
+        assertEquals(false, simulation.run(100, 7L));
+        assertEquals(0, simulation.getIterations());
+        assertTrue(Double.isNaN(simulation.getMakespanPercentile(80)));
+
+        try {
+            simulation.setEffortRange(c.getID(), 2.0, 1.0, 3.0);
+            fail("the most likely effort is below the minimum");
+        } catch (IllegalArgumentException e) {
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import model.Task;
+import model.Person;
+import model.TaskSchedule;
+
+/**
+ * Prints the time taken to schedule random projects of 1k, 10k and 100k tasks, and the heap they use.
+ * Run with: gradle scaleBenchmark
+ */
+public class ScaleBenchmark extends TestDataGenerator {
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static TaskSchedule generate(int numTasks, int numPeople) {
+        TaskSchedule ts = new TaskSchedule();
+        ts.clearTasks();
+        ts.clearPeople();
+        ArrayList<Person> people = new ArrayList<Person>(numPeople);
+        for (int i = 0; i < numPeople; i++) {
+            people.add(new Person("First" + i, "Last" + i, "person" + i + "@example.com", i));
+        }
+        ArrayList<Task> tasks = new ArrayList<Task>(numTasks);
+        int[] dependencies = new int[numTasks * 6];
+        int edges = 0;
+        for (int i = 0; i < numTasks; i++) {
+            tasks.add(new Task("Task" + i, 1 + randInt(99), i));
+            for (int j = 0; j < randInt(4) && i > 0; j++) { // up to 3 dependencies among the previous 50 tasks
+                dependencies[edges++] = i;
+                dependencies[edges++] = randInt(Math.max(0, i - 50), i - 1);
+            }
+        }
+        ts.addAll(tasks, people, Arrays.copyOf(dependencies, edges)); // checked, linked and invalidated once
+        return ts;
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = new int[] {1000, 10000, 100000};
+        System.out.println(String.format("%8s %8s %12s %12s %12s %12s", "tasks", "people", "build (ms)", "schedule (ms)", "model (MB)", "schedule (MB)"));
+        for (int n : sizes) {
+            int people = Math.min(n / 10, TaskSchedule.MAX_PEOPLE);
+            long heapStart = usedHeap();
+            long t0 = System.nanoTime();
+            TaskSchedule ts = generate(n, people);
+            long t1 = System.nanoTime();
+            long heapModel = usedHeap();
+            long t2 = System.nanoTime();
+            boolean ok = ts.scheduleTasks();
+            long t3 = System.nanoTime();
+            long heapSchedule = usedHeap();
+            if (!ok) throw new IllegalStateException("schedule failed for " + n + " tasks");
+            System.out.println(String.format("%8d %8d %12d %12d %12.1f %12.1f", n, people, (t1 - t0) / 1000000, (t3 - t2) / 1000000,
+                (heapModel - heapStart) / 1048576.0, (heapSchedule - heapModel) / 1048576.0));
+        }
+    }
+
+}
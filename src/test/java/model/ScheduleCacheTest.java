@@ -0,0 +1,104 @@
+package model;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import model.Task;
+import model.Person;
+
+public class ScheduleCacheTest extends TestDataGenerator {
+
+    private ScheduleResult schedule(ArrayList<Task> tasks, ArrayList<Person> people) {
+        ScheduleEngine engine = new ScheduleEngine(new TaskSnapshot(tasks), people);
+        assertEquals(true, engine.run());
+        return engine.getResult();
+    }
+
+    @Test (timeout = 1000)
+    public void testKeyOf() {
+
+        ArrayList<Task> tasks = randomTaskArray(10);
+        link(tasks.get(0), tasks.get(5));
+        link(tasks.get(1), tasks.get(5));
+        ArrayList<Person> people = new ArrayList<Person>();
+        people.add(randomPerson());
+        people.add(randomPerson());
+
+        String key = ScheduleCache.keyOf(tasks, people);
+        assertEquals(64, key.length());
+
+        ArrayList<Task> shuffled = new ArrayList<Task>(tasks);
+        Collections.shuffle(shuffled);
+        Collections.reverse(people);
+        Collections.reverse(tasks.get(5).getDependencies());
+        assertEquals(key, ScheduleCache.keyOf(shuffled, people)); // the order does not matter
+
+        link(tasks.get(2), tasks.get(5));
+        assertNotEquals(key, ScheduleCache.keyOf(tasks, people));
+        tasks.get(5).removeDependency(tasks.get(2));
+        tasks.get(2).removeDependent(tasks.get(5));
+        assertEquals(key, ScheduleCache.keyOf(tasks, people)); // the change was undone
+
+        people.add(randomPerson());
+        assertNotEquals(key, ScheduleCache.keyOf(tasks, people));
+
+    }
+
+    @Test (timeout = 1000)
+    public void testLeastRecentlyUsed() {
+
+        ArrayList<Task> tasks = randomTaskArray(3);
+        ArrayList<Person> people = new ArrayList<Person>();
+        people.add(randomPerson());
+        ScheduleResult result = schedule(tasks, people);
+
+        ScheduleCache cache = new ScheduleCache(2, null);
+        cache.put("a", SchedulingPolicy.SMALLEST_EFFORT, result);
+        cache.put("b", SchedulingPolicy.SMALLEST_EFFORT, result);
+        assertSame(result, cache.get("a", SchedulingPolicy.SMALLEST_EFFORT)); // a is now more recent than b
+        cache.put("c", SchedulingPolicy.SMALLEST_EFFORT, result);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b", SchedulingPolicy.SMALLEST_EFFORT));
+        assertSame(result, cache.get("a", SchedulingPolicy.SMALLEST_EFFORT));
+        assertNull(cache.get("a", SchedulingPolicy.LONGEST_PROCESSING_TIME));
+
+    }
+
+    @Test (timeout = 5000)
+    public void testDirectory() throws Exception {
+
+        ArrayList<Task> tasks = randomTaskArray(20);
+        for (int i = 1; i < tasks.size(); i += 2)
+            link(tasks.get(i - 1), tasks.get(i));
+        ArrayList<Person> people = new ArrayList<Person>();
+        for (int i = 0; i < 3; i++)
+            people.add(randomPerson());
+        ScheduleResult result = schedule(tasks, people);
+        String key = ScheduleCache.keyOf(tasks, people);
+
+        File directory = Files.createTempDirectory("schedules").toFile();
+        directory.deleteOnExit();
+        new ScheduleCache(4, directory).put(key, SchedulingPolicy.SMALLEST_EFFORT, result);
+        for (File f : directory.listFiles())
+            f.deleteOnExit();
+
+        ScheduleResult read = new ScheduleCache(4, directory).get(key, SchedulingPolicy.SMALLEST_EFFORT); // a later session
+        assertNotNull(read);
+        assertEquals(result.size(), read.size());
+        assertEquals(result.getMakespan(), read.getMakespan(), 0.0);
+        for (int position = 0; position < result.size(); position++) {
+            int id = result.getTaskID(position);
+            assertEquals(id, read.getTaskID(position));
+            assertEquals(result.getTimeStart(id), read.getTimeStart(id), 0.0);
+            assertEquals(result.getHeadcount(id), read.getHeadcount(id));
+        }
+        for (Person p : people)
+            assertArrayEquals(result.getAssignedTaskIDs(p.getID()), read.getAssignedTaskIDs(p.getID()));
+
+    }
+
+}
@@ -0,0 +1,275 @@
+package model;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import model.Task;
+import model.Person;
+import model.ScheduleEngine;
+import model.TaskSnapshot;
+
+public class ScheduleEngineTest extends TestDataGenerator {
+
+    private Task copyOf(TaskSnapshot snapshot, Task t) {
+        return snapshot.getTask(snapshot.indexOf(t.getID()));
+    }
+
+    @Test (timeout = 100)
+    public void testLinearStartTimes() {
+
+        Task a = getTask("a", 2.5);
+        Task b = getTask("b", 3.0);
+        link(a, b);
+
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        tasks.add(b);
+        tasks.add(a);
+
+        TaskSnapshot snapshot = new TaskSnapshot(tasks);
+        ScheduleEngine engine = new ScheduleEngine(snapshot, randomPeople(1));
+        assertEquals(true, engine.run());
+
+        assertEquals(0.0, copyOf(snapshot, a).getTimeStart(), 0.0);
+        assertEquals(3.0, copyOf(snapshot, b).getTimeStart(), 0.0); // completion is observed on the next whole time unit
+        assertEquals(a, engine.getScheduledTasks().get(0));
+        assertEquals(b, engine.getScheduledTasks().get(1));
+        assertEquals(-1.0, b.getTimeStart(), 0.0); // the originals are not modified
+        assertEquals(1, b.getDependencies().size());
+
+    }
+
+    @Test (timeout = 100)
+    public void testIdlePeopleShareTask() {
+
+        Task a = getTask("a", 10.0);
+        Task b = getTask("b", 1.0);
+        link(a, b);
+
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        tasks.add(a);
+        tasks.add(b);
+
+        ArrayList<Person> people = randomPeople(3);
+        TaskSnapshot snapshot = new TaskSnapshot(tasks);
+        ScheduleEngine engine = new ScheduleEngine(snapshot, people);
+        assertEquals(true, engine.run());
+
+        assertEquals(0.8, copyOf(snapshot, a).getReduction(), 0.0);
+        assertEquals(8.0, copyOf(snapshot, b).getTimeStart(), 0.0);
+        for (Person p : people) {
+            assertEquals(2, engine.getAssignedTasks().get(p.getID()).size());
+        }
+
+    }
+
+    @Test (timeout = 1000)
+    public void testLargeEfforts() {
+
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(getTask(randomName(), 1e9));
+            if (i > 0) link(tasks.get(i - 1), tasks.get(i));
+        }
+
+        TaskSnapshot snapshot = new TaskSnapshot(tasks);
+        ScheduleEngine engine = new ScheduleEngine(snapshot, randomPeople(3));
+        assertEquals(true, engine.run());
+        assertEquals(999 * 1e9 * 0.8, copyOf(snapshot, tasks.get(999)).getTimeStart(), 1.0);
+
+    }
+
+    @Test (timeout = 100)
+    public void testCycle() {
+
+        ArrayList<Task> tasks = randomTaskArray(3);
+        link(tasks.get(0), tasks.get(1));
+        link(tasks.get(1), tasks.get(2));
+        link(tasks.get(2), tasks.get(1));
+
+        ScheduleEngine engine = new ScheduleEngine(new TaskSnapshot(tasks), randomPeople(2));
+        assertEquals(false, engine.run());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testMonitor() {
+
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < 2000; i++) {
+            tasks.add(getTask(randomName(), 1.0));
+            if (i > 0) link(tasks.get(i - 1), tasks.get(i));
+        }
+
+        int[] last = new int[2];
+        ScheduleEngine engine = new ScheduleEngine(new TaskSnapshot(tasks), randomPeople(2));
+        engine.setMonitor((scheduled, total) -> {
+            assertTrue(scheduled >= last[0]);
+            last[0] = scheduled;
+            last[1] = total;
+            return true;
+        });
+        assertEquals(true, engine.run());
+        assertEquals(2000, last[0]);
+        assertEquals(2000, last[1]);
+
+        ScheduleEngine stopped = new ScheduleEngine(new TaskSnapshot(tasks), randomPeople(2));
+        stopped.setMonitor((scheduled, total) -> false);
+        assertEquals(false, stopped.run());
+        assertTrue(stopped.getScheduledTasks().size() < 2000);
+
+    }
+
+    @Test (timeout = 1000)
+    public void testReadyOnceAfterDependencies() {
+
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < 500; i++) {
+            tasks.add(getTask(randomName(), 1 + randInt(10)));
+            for (int j = 0; j < randInt(5) && i > 0; j++) {
+                Task d = tasks.get(randInt(i));
+                if (!tasks.get(i).hasDependency(d)) link(d, tasks.get(i));
+            }
+        }
+        ArrayList<ArrayList<Task>> dependencies = new ArrayList<ArrayList<Task>>();
+        for (Task t : tasks)
+            dependencies.add(new ArrayList<Task>(t.getDependencies()));
+
+        ScheduleEngine engine = new ScheduleEngine(new TaskSnapshot(tasks), randomPeople(7));
+        assertEquals(true, engine.run());
+        ScheduleResult result = engine.getResult();
+
+        HashSet<Integer> started = new HashSet<Integer>();
+        for (Task t : engine.getScheduledTasks()) {
+            assertTrue(started.add(t.getID())); // started once
+            for (Task d : t.getDependencies())
+                assertTrue(t.getTimeStart() >= result.getTimeEnd(d.getID()));
+        }
+        assertEquals(tasks.size(), started.size());
+        for (int i = 0; i < tasks.size(); i++)
+            assertEquals(dependencies.get(i), tasks.get(i).getDependencies()); // the originals are not modified
+
+    }
+
+    @Test (timeout = 5000)
+    public void testManyPeople() {
+
+        ArrayList<Task> tasks = new ArrayList<Task>();
+        for (int i = 0; i < 20000; i++) {
+            tasks.add(getTask(randomName(), 1 + randInt(20)));
+            if (i >= 100) link(tasks.get(randInt(i - 100, i - 1)), tasks.get(i));
+        }
+
+        TaskSnapshot snapshot = new TaskSnapshot(tasks);
+        ArrayList<Person> people = randomPeople(3000);
+        ScheduleEngine engine = new ScheduleEngine(snapshot, people);
+        assertEquals(true, engine.run());
+
+        ScheduleResult result = engine.getResult();
+        int assignments = 0;
+        for (Person p : people) {
+            double free = 0.0; // nobody works on two tasks at once
+            for (Task t : engine.getAssignedTasks().get(p.getID())) {
+                assertTrue(t.getTimeStart() >= free);
+                free = result.getTimeEnd(t.getID());
+                assignments++;
+            }
+        }
+        int headcount = 0;
+        for (Task t : engine.getScheduledTasks())
+            headcount += result.getHeadcount(t.getID());
+        assertEquals(assignments, headcount);
+
+    }
+
+    /*
+     * The original time-step loop, one time unit per iteration, on copies of the tasks. The remaining tasks are taken in the
+     * order of Task.compareTo, evaluated as they are taken; the loop kept them in a PriorityQueue whose order went stale
+     * once dependencies were removed. Ties go to the smallest ID, and the people are taken by ascending ID.
+     */
+    private HashMap<Integer, Double> timeStepLoop(ArrayList<Task> tasks, ArrayList<Person> people) {
+        TaskSnapshot snapshot = new TaskSnapshot(tasks);
+        ArrayList<Task> remaining = new ArrayList<Task>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            remaining.add(snapshot.getTask(i));
+            snapshot.getTask(i).setTimeStart(-1);
+        }
+        ArrayList<Person> staff = new ArrayList<Person>();
+        for (Person p : people)
+            staff.add(Person.restore(p.getFirstName(), p.getLastName(), p.getEmail(), p.getID()));
+        staff.sort(Comparator.comparingInt(Person::getID));
+        Comparator<Task> order = (a, b) -> a.compareTo(b) != 0 ? a.compareTo(b) : Integer.compare(a.getID(), b.getID());
+        double time = 0.0;
+        while (!remaining.isEmpty()) {
+            ArrayList<Task> availableTasks = new ArrayList<Task>();
+            ArrayList<Task> unpolled = new ArrayList<Task>(remaining);
+            while (!unpolled.isEmpty()) {
+                Task current = unpolled.stream().min(order).get();
+                unpolled.remove(current);
+                if (current.getDependencies().size() != 0) continue;
+                if (current.getTimeStart() == -1) {
+                    for (Person p : staff) {
+                        if (p.getTask() == null) {
+                            p.setTask(current);
+                            current.setTimeStart(time);
+                            availableTasks.add(current);
+                            break;
+                        }
+                    }
+                } else {
+                    int numberEmployees = 0;
+                    for (Person p : staff)
+                        if (p.getTask() == current) numberEmployees++;
+                    current.setReduction(ScheduleEngine.reductionFor(numberEmployees));
+                    if (time - current.getTimeStart() >= current.getEffortEstimate() * current.getReduction()) {
+                        remaining.remove(current);
+                        for (Person p : staff)
+                            if (p.getTask() == current) p.setTask(null);
+                        for (Task t : remaining)
+                            t.getDependencies().remove(current);
+                    }
+                }
+            }
+            int indexTask = 0;
+            for (Person p : staff) {
+                if (p.getTask() == null && !availableTasks.isEmpty()) {
+                    p.setTask(availableTasks.get(indexTask));
+                    indexTask = (indexTask + 1) % availableTasks.size();
+                }
+            }
+            time += 1.0;
+        }
+        HashMap<Integer, Double> starts = new HashMap<Integer, Double>();
+        for (int i = 0; i < snapshot.size(); i++)
+            starts.put(snapshot.getTask(i).getID(), snapshot.getTask(i).getTimeStart());
+        return starts;
+    }
+
+    @Test (timeout = 10000)
+    public void testSameAsTimeStepLoop() {
+
+        for (int project = 0; project < 300; project++) {
+            ArrayList<Task> tasks = new ArrayList<Task>();
+            int n = randInt(5, 30);
+            for (int i = 0; i < n; i++) {
+                tasks.add(getTask(randomName(), project % 2 == 0 ? randInt(2, 40) / 2.0 : 1 + randomEffort() / 4)); // half units make tasks end together
+                for (int j = 0; j < randInt(3) && i > 0; j++) {
+                    Task d = tasks.get(randInt(i));
+                    if (!tasks.get(i).hasDependency(d)) link(d, tasks.get(i));
+                }
+            }
+            ArrayList<Person> people = randomPeople(randInt(1, 4));
+
+            TaskSnapshot snapshot = new TaskSnapshot(tasks);
+            ScheduleEngine engine = new ScheduleEngine(snapshot, people);
+            assertEquals(true, engine.run());
+            HashMap<Integer, Double> expected = timeStepLoop(tasks, people);
+            for (Task t : tasks)
+                assertEquals(expected.get(t.getID()), copyOf(snapshot, t).getTimeStart(), 0.0);
+        }
+
+    }
+
+}
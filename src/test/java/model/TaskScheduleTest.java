@@ -2,11 +2,16 @@ package model;
 
 import static org.junit.Assert.*;
 import org.junit.Test;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.HashSet;
 import java.util.HashMap;
 import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 import model.Task;
 import model.Person;
 import model.TaskSchedule;
@@ -17,11 +22,6 @@ public class TaskScheduleTest extends TestDataGenerator {
     // can we break writefiles by passing it weird things, or passing weird things to people / tasks
     // can we produce a schedule from an invalid set of tasks / dependencies
 
-    private void link(Task a, Task b) {
-        a.addDependent(b);
-        b.addDependency(a);
-    }
-
     private HashMap<Integer, Task> getRandomTasksMap() {
 
         ArrayList<Task> tasks = randomTaskArray(20);
@@ -55,8 +55,8 @@ public class TaskScheduleTest extends TestDataGenerator {
 
     private TaskSchedule getTaskScheduleInstance() {
       TaskSchedule ts = new TaskSchedule();
-      ts.getPeople().clear();
-      ts.getTasks().clear();
+      ts.clearPeople();
+      ts.clearTasks();
       for (int i = 0; i < 3; i++) {
         ts.addPerson(randomPerson());
       }
@@ -171,6 +171,668 @@ public class TaskScheduleTest extends TestDataGenerator {
 
     }
 
+    @Test (timeout = 1000)
+    public void testFindCycleNone() {
+
+        ts = getTaskScheduleInstance();
+        taskMap = getRandomTasksMap();
+
+        for (Task t : taskMap.values())
+            ts.addTask(t);
+
+        assertEquals(0, ts.findDependencyCycle().size());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testFindCyclePath() {
+
+        ts = getTaskScheduleInstance();
+        taskMap = getRandomTasksMap();
+
+        tasks = new ArrayList<Task>(taskMap.values());
+        link(tasks.get(4), tasks.get(5));
+        link(tasks.get(5), tasks.get(6));
+        link(tasks.get(6), tasks.get(4));
+
+        for (Task t : taskMap.values())
+            ts.addTask(t);
+
+        ArrayList<Task> cycle = ts.findDependencyCycle();
+        assertEquals(true, cycle.size() > 0);
+        for (int i = 0; i < cycle.size(); i++) {
+            Task next = cycle.get((i + 1) % cycle.size());
+            assertEquals(true, next.getDependencies().contains(cycle.get(i)));
+        }
+
+    }
+
+    @Test (timeout = 1000)
+    public void testFindCycleSelfDependent() {
+
+        ts = getTaskScheduleInstance();
+        tasks = randomTaskArray(20);
+
+        link(tasks.get(9), tasks.get(9));
+
+        for (Task t : tasks)
+            ts.addTask(t);
+
+        assertEquals(Arrays.asList(tasks.get(9)), ts.findDependencyCycle());
+
+    }
+
+    private HashMap<Integer, Double> startTimes(TaskSchedule schedule) {
+        HashMap<Integer, Double> starts = new HashMap<Integer, Double>();
+        for (Task t : schedule.getScheduledTasks()) {
+            starts.put(t.getID(), t.getTimeStart());
+        }
+        return starts;
+    }
+
+    @Test (timeout = 1000)
+    public void testIncremental() {
+
+        ts = getTaskScheduleInstance();
+        tasks = randomTaskArray(20);
+
+        for (int i = 0; i < tasks.size(); i++) {
+            for (int j = 0; j < randInt(3); j++) {
+                if (i + 1 < tasks.size()) link(tasks.get(i), tasks.get(randInt(i + 1, tasks.size() - 1)));
+            }
+        }
+
+        for (Task t : tasks)
+            ts.addTask(t);
+
+        assertEquals(true, ts.scheduleTasks());
+
+        for (int k = 0; k < 5; k++) {
+
+            int from = randInt(tasks.size() - 2);
+            Task dependent = tasks.get(randInt(from + 1, tasks.size() - 1));
+            link(tasks.get(from), dependent);
+            ts.invalidateTask(dependent);
+            assertEquals(true, ts.scheduleTasks());
+
+            TaskSchedule full = new TaskSchedule();
+            full.clearTasks();
+            full.setIncrementalScheduling(false);
+            full.setPeople(new ArrayList<Person>(ts.getPeople().values()));
+            for (Person p : full.getPeople().values())
+                full.addPerson(p);
+            for (Task t : tasks)
+                full.addTask(t);
+
+            assertEquals(true, full.scheduleTasks());
+            assertEquals(startTimes(full), startTimes(ts));
+            for (Person p : ts.getPeople().values()) {
+                assertEquals(full.getWorkingPeople().get(p.getID()), ts.getWorkingPeople().get(p.getID()));
+            }
+
+        }
+
+    }
+
+    @Test (timeout = 2000)
+    public void testBestOfPolicies() {
+
+        ts = getTaskScheduleInstance();
+        taskMap = getRandomTasksMap();
+
+        for (Task t : taskMap.values())
+            ts.addTask(t);
+
+        assertEquals(true, ts.scheduleTasks());
+        double makespan = ts.getScheduleResult().getMakespan();
+
+        assertEquals(true, ts.scheduleTasks(SchedulingPolicy.values()));
+        assertEquals(true, ts.getScheduleResult().getMakespan() <= makespan);
+        assertEquals(taskMap.size(), ts.getScheduledTasks().size());
+
+    }
+
+    @Test (timeout = 2000)
+    public void testBestOfPoliciesCycle() {
+
+        ts = getTaskScheduleInstance();
+        tasks = randomTaskArray(20);
+
+        for (int i = 0; i < tasks.size()-1; i++) {
+            link(tasks.get(i), tasks.get(i+1));
+        }
+
+        link(tasks.get(19), tasks.get(0));
+
+        for (Task t : tasks)
+            ts.addTask(t);
+
+        assertEquals(false, ts.scheduleTasks(SchedulingPolicy.values()));
+
+    }
+
+    private File tempFile(String content) throws IOException {
+        File file = File.createTempFile("schedule", ".txt");
+        file.deleteOnExit();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(content);
+        }
+        return file;
+    }
+
+    @Test (timeout = 1000)
+    public void testReadMultiLine() throws IOException {
+
+        File fileTasks = tempFile("[\n  {\"name\": \"a\", \"effort\": 2.0, \"id\": 1,\n   \"dependents\": [{\"name\": \"b\", \"effort\": 3.0, \"id\": 2}]},\n"
+                + "  {\"name\": \"b\", \"effort\": 3.0, \"id\": 2}\n]\n");
+        File filePeople = tempFile("[\n  {\"firstName\": \"Ada\", \"lastName\": \"Lovelace\", \"email\": \"ada@example.com\", \"id\": 7}\n]\n");
+
+        ts = new TaskSchedule(fileTasks, filePeople);
+
+        assertEquals(2, ts.getTasks().size());
+        assertEquals(1, ts.getPeople().size());
+        for (Task t : ts.getTasks()) {
+            assertEquals(t.getID() == 2 ? 1 : 0, t.getDependencies().size());
+        }
+        assertEquals(true, ts.scheduleTasks());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testWriteRead() throws IOException {
+
+        File fileTasks = tempFile("");
+        File filePeople = tempFile("");
+        ts = new TaskSchedule(fileTasks, filePeople);
+        assertEquals(0, ts.getTasks().size());
+
+        for (int i = 0; i < 3; i++) {
+            ts.addPerson(randomPerson());
+        }
+        tasks = randomTaskArray(20);
+        for (int i = 1; i < tasks.size(); i++) {
+            link(tasks.get(0), tasks.get(i));
+        }
+        for (Task t : tasks)
+            ts.addTask(t);
+        ts.writeFiles();
+
+        TaskSchedule read = new TaskSchedule(fileTasks, filePeople);
+        assertEquals(20, read.getTasks().size());
+        assertEquals(ts.getPeople().keySet(), read.getPeople().keySet());
+        int edges = 0;
+        for (Task t : read.getTasks())
+            edges += t.getDependencies().size();
+        assertEquals(19, edges);
+
+    }
+
+    @Test (timeout = 2000)
+    public void testWriteReadChain() throws IOException {
+
+        File fileTasks = tempFile("");
+        File filePeople = tempFile("");
+        ts = new TaskSchedule(fileTasks, filePeople);
+        ts.addPerson(randomPerson());
+
+        tasks = randomTaskArray(5000);
+        for (int i = 0; i < tasks.size() - 1; i++) {
+            link(tasks.get(i), tasks.get(i + 1));
+        }
+        for (Task t : tasks)
+            ts.addTask(t);
+        ts.writeFiles();
+
+        assertEquals(1, tasks.get(1).getDependencies().size()); // the tasks in memory keep their dependencies
+        assertEquals(true, fileTasks.length() < 5000 * 200); // every task is stored once
+
+        TaskSchedule read = new TaskSchedule(fileTasks, filePeople);
+        HashMap<Integer, Task> readById = new HashMap<Integer, Task>();
+        for (Task t : read.getTasks())
+            readById.put(t.getID(), t);
+        for (int i = 1; i < tasks.size(); i++) {
+            Task t = readById.get(tasks.get(i).getID());
+            assertEquals(1, t.getDependencies().size());
+            assertEquals(tasks.get(i - 1).getID(), t.getDependencies().get(0).getID());
+            assertEquals(true, t.getDependencies().get(0) == readById.get(tasks.get(i - 1).getID()));
+        }
+
+    }
+
+    private TaskSchedule journaledSchedule(File fileTasks, File filePeople) {
+        new File(fileTasks.getPath().replaceFirst("\\.txt$", ".journal")).deleteOnExit();
+        TaskSchedule schedule = new TaskSchedule(fileTasks, filePeople);
+        schedule.openJournal();
+        return schedule;
+    }
+
+    @Test (timeout = 1000)
+    public void testJournalRecovery() throws IOException {
+
+        File fileTasks = tempFile("");
+        File filePeople = tempFile("");
+        ts = journaledSchedule(fileTasks, filePeople);
+
+        Person p = randomPerson();
+        ts.addPerson(p);
+        tasks = randomTaskArray(3);
+        for (Task t : tasks)
+            ts.addTask(t);
+        assertEquals(0, ts.addDependency(tasks.get(1), tasks.get(0)).size());
+        assertEquals(0, ts.addDependency(tasks.get(2), tasks.get(1)).size());
+        assertEquals(0, ts.addDependency(tasks.get(1), tasks.get(0)).size()); // already there: not recorded again
+        assertEquals(true, ts.removeDependency(tasks.get(2), tasks.get(1)));
+        // the session ends without saving or discarding
+
+        TaskSchedule read = new TaskSchedule(fileTasks, filePeople);
+        assertEquals(0, read.getTasks().size()); // not saved
+
+        assertEquals(7, read.openJournal());
+        assertEquals(3, read.getTasks().size());
+        assertEquals(true, read.getPeople().containsKey(p.getID()));
+        for (Task t : read.getTasks()) {
+            assertEquals(t.getID() == tasks.get(1).getID() ? 1 : 0, t.getDependencies().size());
+        }
+
+    }
+
+    @Test (timeout = 1000)
+    public void testJournalSaveDiscard() throws IOException {
+
+        File fileTasks = tempFile("");
+        File filePeople = tempFile("");
+        ts = journaledSchedule(fileTasks, filePeople);
+        ts.addPerson(randomPerson());
+        Task a = randomTask();
+        ts.addTask(a);
+        ts.saveChanges();
+        assertEquals(0, fileTasks.length()); // only the journal is written
+
+        ts.addTask(randomTask());
+        ts.discardChanges();
+
+        TaskSchedule read = new TaskSchedule(fileTasks, filePeople);
+        assertEquals(1, read.getTasks().size());
+        assertEquals(a.getID(), read.getTasks().peek().getID());
+        assertEquals(0, read.openJournal());
+
+        read.writeFiles(); // the journal is compacted into the files
+        TaskSchedule again = new TaskSchedule(fileTasks, filePeople);
+        assertEquals(1, again.getTasks().size());
+        assertEquals(1, again.getPeople().size());
+        assertEquals(0, new File(fileTasks.getPath().replaceFirst("\\.txt$", ".journal")).length());
+
+    }
+
+    @Test (timeout = 5000)
+    public void testWriteFilesAsync() throws Exception {
+
+        File fileTasks = tempFile("");
+        File filePeople = tempFile("");
+        File fileJournal = new File(fileTasks.getPath().replaceFirst("\\.txt$", ".journal"));
+        ts = journaledSchedule(fileTasks, filePeople);
+        ts.addPerson(randomPerson());
+        tasks = randomTaskArray(2);
+        for (Task t : tasks)
+            ts.addTask(t);
+        ts.saveChanges();
+
+        Future<Boolean> save = ts.writeFilesAsync();
+        ts.addTask(randomTask()); // made while the copy is written
+        assertEquals(true, save.get());
+
+        TaskSchedule read = new TaskSchedule(fileTasks, filePeople);
+        assertEquals(2, read.getTasks().size());
+        assertEquals(1, read.getPeople().size());
+        assertEquals(1, read.openJournal()); // only the change made after the copy is left
+        assertEquals(3, read.getTasks().size());
+        assertEquals(false, new File(fileTasks.getPath() + ".tmp").exists());
+        assertEquals(true, fileJournal.length() > 0);
+
+    }
+
+    @Test (timeout = 5000)
+    public void testLoad() throws Exception {
+
+        File fileTasks = tempFile("");
+        File filePeople = tempFile("");
+        ts = new TaskSchedule(fileTasks, filePeople);
+        ts.addPerson(randomPerson());
+        tasks = randomTaskArray(2);
+        for (Task t : tasks)
+            ts.addTask(t);
+        ts.addDependency(tasks.get(1), tasks.get(0));
+        ts.writeFiles();
+
+        TaskSchedule shown = TaskSchedule.createLoading();
+        assertEquals(0, shown.getTasks().size());
+        int[] notifications = new int[1];
+        shown.addListener(event -> notifications[0]++);
+
+        Thread loader = new Thread(() -> ts = new TaskSchedule(fileTasks, filePeople));
+        loader.start();
+        loader.join();
+        shown.load(ts);
+
+        assertEquals(1, notifications[0]);
+        assertEquals(2, shown.getTasks().size());
+        assertEquals(1, shown.getPeople().size());
+        assertEquals(true, shown.scheduleTasks());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testEvents() {
+
+        ts = getTaskScheduleInstance();
+        ArrayList<Runnable> pulse = new ArrayList<Runnable>();
+        ts.setEventDispatcher(pulse::add);
+        ArrayList<ScheduleEvent> events = new ArrayList<ScheduleEvent>();
+        ts.addListener(events::add);
+
+        tasks = randomTaskArray(3);
+        for (Task t : tasks)
+            ts.addTask(t);
+        ts.addDependency(tasks.get(1), tasks.get(0));
+        assertEquals(1, pulse.size()); // coalesced until the dispatcher runs
+        pulse.remove(0).run();
+        assertEquals(1, events.size());
+        ScheduleEvent event = events.get(0);
+        assertEquals(tasks, new ArrayList<Task>(event.getAddedTasks()));
+        assertEquals(0, event.getChangedTaskIds().size()); // already added
+        assertEquals(true, event.isTaskListChanged());
+        assertEquals(false, event.isScheduleChanged());
+
+        ts.addDependency(tasks.get(2), tasks.get(1));
+        assertEquals(true, ts.scheduleTasks());
+        pulse.remove(0).run();
+        event = events.get(1);
+        assertEquals(new HashSet<Integer>(Arrays.asList(tasks.get(1).getID(), tasks.get(2).getID())), event.getChangedTaskIds());
+        assertEquals(false, event.isTaskListChanged());
+        assertEquals(true, event.isScheduleChanged());
+
+        Task added = randomTask();
+        ts.addTask(added);
+        ts.clearTasks();
+        pulse.remove(0).run();
+        event = events.get(2);
+        assertEquals(0, event.getAddedTasks().size());
+        assertEquals(4, event.getRemovedTaskIds().size());
+        assertEquals(true, event.getRemovedTaskIds().contains(added.getID()));
+
+        ts.updateView();
+        ts.addTask(randomTask());
+        pulse.remove(0).run();
+        assertEquals(true, events.get(3).isReset());
+        assertEquals(0, events.get(3).getAddedTasks().size()); // read again with the rest
+        assertEquals(0, pulse.size());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testScheduleCached() {
+
+        ts = getTaskScheduleInstance();
+        tasks = randomTaskArray(10);
+        for (Task t : tasks)
+            ts.addTask(t);
+        ts.addPerson(randomPerson());
+        ts.addPerson(randomPerson());
+        assertEquals(true, ts.scheduleTasks());
+        ScheduleResult first = ts.getScheduleResult();
+        int scheduled = ts.getScheduledTasks().size();
+
+        ts.addDependency(tasks.get(3), tasks.get(0));
+        assertEquals(true, ts.scheduleTasks());
+        assertNotSame(first, ts.getScheduleResult());
+
+        ts.removeDependency(tasks.get(3), tasks.get(0)); // undone
+        assertEquals(true, ts.scheduleTasks());
+        assertSame(first, ts.getScheduleResult());
+        assertEquals(scheduled, ts.getScheduledTasks().size());
+        for (Task t : ts.getScheduledTasks())
+            assertEquals(first.getTimeStart(t.getID()), t.getTimeStart(), 0.0);
+
+    }
+
+    private File csvFile(String content) throws IOException {
+        File file = File.createTempFile("import", ".csv");
+        file.deleteOnExit();
+        FileWriter writer = new FileWriter(file);
+        writer.write(content);
+        writer.close();
+        return file;
+    }
+
+    @Test (timeout = 5000)
+    public void testImportProject() throws IOException {
+
+        ts = getTaskScheduleInstance();
+        Task planned = randomTask();
+        ts.addTask(planned);
+        int[] notifications = new int[1];
+        ts.addListener(event -> notifications[0]++);
+
+        int a = randomTask().getID(), b = randomTask().getID(), c = randomTask().getID(); // unused IDs
+        int p = randomPerson().getID();
+        CsvProjectFile imported = CsvProjectFile.read(
+                csvFile("id,name,effort\n" + a + ",a,2\n" + b + ",b,3\n" + c + ",c,1\n"),
+                csvFile("id,first_name,last_name,email\n" + p + ",Ann,Lee,ann@lee.org\n"),
+                csvFile("task,dependency\n" + b + "," + a + "\n" + c + "," + b + "\n" + planned.getID() + "," + c + "\n"));
+        ts.importProject(imported);
+
+        assertEquals(1, notifications[0]);
+        assertEquals(4, ts.getTasks().size());
+        assertEquals(4, ts.getPeople().size());
+        assertEquals(1, planned.getDependencies().size());
+        assertEquals(c, planned.getDependencies().get(0).getID());
+        assertEquals(0, ts.getTasks().peek().getDependencies().size()); // the queue is still ordered
+        assertEquals(true, ts.scheduleTasks());
+        assertEquals(planned.getID(), ts.getScheduledTasks().get(3).getID());
+
+    }
+
+    @Test (timeout = 5000)
+    public void testAddAllRemoveAll() throws IOException {
+
+        File fileTasks = tempFile("");
+        File filePeople = tempFile("");
+        ts = journaledSchedule(fileTasks, filePeople);
+        ts.addPerson(randomPerson());
+        int[] notifications = new int[1];
+        ts.addListener(event -> notifications[0]++);
+
+        tasks = randomTaskArray(4);
+        Person p = randomPerson();
+        int[] chain = new int[] {tasks.get(1).getID(), tasks.get(0).getID(), tasks.get(2).getID(), tasks.get(1).getID(),
+                tasks.get(3).getID(), tasks.get(2).getID()};
+        ts.addAll(tasks, Arrays.asList(p), chain);
+        assertEquals(1, notifications[0]);
+        assertEquals(4, ts.getTasks().size());
+        assertEquals(2, ts.getPeople().size());
+        assertEquals(true, ts.scheduleTasks());
+
+        notifications[0] = 0; // the schedule was published
+        ts.removeAll(Arrays.asList(tasks.get(1).getID()), new ArrayList<Integer>());
+        assertEquals(1, notifications[0]);
+        assertEquals(3, ts.getTasks().size());
+        assertEquals(0, tasks.get(2).getDependencies().size());
+        assertEquals(0, tasks.get(0).getDependents().size());
+        assertEquals(0, ts.getTasks().peek().getDependencies().size()); // the queue is reordered
+        assertEquals(1, ts.removeDependencies(new int[] {tasks.get(3).getID(), tasks.get(2).getID(), tasks.get(3).getID(), tasks.get(0).getID()}));
+        assertEquals(2, notifications[0]);
+        assertEquals(true, ts.scheduleTasks());
+        assertEquals(3, ts.getScheduledTasks().size());
+
+        try {
+            ts.removeAll(Arrays.asList(tasks.get(0).getID(), tasks.get(1).getID()), new ArrayList<Integer>()); // already removed
+            fail("unknown task removed");
+        } catch (IllegalArgumentException e) {
+        }
+        assertEquals(3, ts.getTasks().size());
+        ts.removeAll(new ArrayList<Integer>(), Arrays.asList(p.getID()));
+        assertEquals(1, ts.getPeople().size());
+
+        TaskSchedule read = new TaskSchedule(fileTasks, filePeople);
+        read.openJournal(); // the session ended without saving
+        assertEquals(3, read.getTasks().size());
+        assertEquals(1, read.getPeople().size());
+        for (Task t : read.getTasks())
+            assertEquals(0, t.getDependencies().size());
+
+    }
+
+    @Test (timeout = 5000)
+    public void testImportProjectInvalid() throws IOException {
+
+        ts = getTaskScheduleInstance();
+        Task planned = randomTask();
+        ts.addTask(planned);
+        int a = randomTask().getID(), b = randomTask().getID(), unknown = randomTask().getID();
+        File tasksCsv = csvFile("id,name,effort\n" + a + ",a,2\n" + b + ",b,3\n");
+
+        String[] dependencies = {
+                b + "," + a + "\n" + a + "," + b + "\n", // loop
+                b + "," + unknown + "\n", // unknown task
+        };
+        for (String d : dependencies) {
+            CsvProjectFile imported = CsvProjectFile.read(tasksCsv, null, csvFile("task,dependency\n" + d));
+            try {
+                ts.importProject(imported);
+                fail("Invalid dependencies: " + d);
+            } catch (IllegalArgumentException e) {
+                // nothing is added
+            }
+            assertEquals(1, ts.getTasks().size());
+            for (Task t : imported.getTasks())
+                assertEquals(0, t.getDependencies().size());
+        }
+
+        CsvProjectFile duplicate = CsvProjectFile.read(csvFile("id,name,effort\n" + planned.getID() + ",a,2\n"), null, null);
+        try {
+            ts.importProject(duplicate);
+            fail("The task ID is already used");
+        } catch (IllegalArgumentException e) {
+            assertEquals(1, ts.getTasks().size());
+        }
+
+    }
+
+    @Test (timeout = 5000)
+    public void testPrepareSchedule() throws Exception {
+
+        ts = getTaskScheduleInstance();
+        tasks = randomTaskArray(5);
+        for (Task t : tasks)
+            ts.addTask(t);
+        ts.addDependency(tasks.get(1), tasks.get(0));
+
+        ScheduleJob job = ts.prepareSchedule();
+        Thread worker = new Thread(() -> job.run(null));
+        worker.start();
+        worker.join();
+        assertEquals(true, job.isScheduled());
+        assertEquals(0, ts.getScheduledTasks().size()); // not published yet
+        assertEquals(true, ts.publishSchedule(job));
+        assertEquals(5, ts.getScheduledTasks().size());
+        assertEquals(false, ts.isNewScheduleRequired());
+
+        ScheduleJob stale = ts.prepareSchedule();
+        stale.run(null);
+        ts.removeDependency(tasks.get(1), tasks.get(0)); // changed while it ran
+        assertEquals(false, ts.publishSchedule(stale));
+        assertEquals(true, ts.isNewScheduleRequired());
+
+        Task first = randomTask();
+        for (Task t : tasks)
+            ts.addDependency(t, first); // no task without dependencies is left
+        assertNull(ts.prepareSchedule());
+
+    }
+
+    @Test (timeout = 5000)
+    public void testSnapshot() throws Exception {
+
+        ts = getTaskScheduleInstance();
+        tasks = randomTaskArray(5);
+        for (Task t : tasks)
+            ts.addTask(t);
+        ts.addDependency(tasks.get(1), tasks.get(0));
+
+        ProjectSnapshot snapshot = ts.getSnapshot();
+        assertSame(snapshot, ts.getSnapshot()); // taken once per version
+        assertEquals(5, snapshot.getTasks().size());
+        assertEquals(3, snapshot.getPeople().size());
+        for (Task t : snapshot.getTasks()) {
+            assertNotSame(tasks.get(tasks.indexOf(t)), t); // copies
+            if (t.getID() == tasks.get(1).getID())
+                assertEquals(tasks.get(0).getID(), t.getDependencies().get(0).getID());
+        }
+        try {
+            snapshot.getTasks().add(randomTask());
+            fail("the snapshot can be modified");
+        } catch (UnsupportedOperationException e) {
+        }
+
+        assertEquals(true, ts.scheduleTasks());
+        ProjectSnapshot scheduled = ts.getSnapshot();
+        assertEquals(true, scheduled.getVersion() > snapshot.getVersion());
+        assertEquals(5, scheduled.getScheduledTasks().size());
+        assertEquals(0, snapshot.getScheduledTasks().size()); // unchanged
+        assertSame(ts.getScheduledTasks(), scheduled.getScheduledTasks()); // shared, not copied
+        try {
+            ts.getTasks().clear();
+            fail("the tasks can be modified");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            ts.getPeople().clear();
+            fail("the people can be modified");
+        } catch (UnsupportedOperationException e) {
+        }
+        assertEquals(5, ts.getTasks().size());
+        assertEquals(3, ts.getPeople().size());
+
+        // Snapshots taken by another thread while tasks are added are always consistent.
+        AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread reader = new Thread(() -> {
+            try {
+                int size = 0;
+                while (size < 105) {
+                    ProjectSnapshot s = ts.getSnapshot();
+                    assertEquals(true, s.getTasks().size() >= size);
+                    size = s.getTasks().size();
+                    for (Task t : s.getTasks())
+                        assertNotNull(t);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 100; i++)
+            ts.addTask(randomTask());
+        reader.join();
+        assertNull(failure.get());
+
+    }
+
+    @Test (timeout = 1000)
+    public void testAddDependencyLoop() {
+
+        ts = getTaskScheduleInstance();
+        tasks = randomTaskArray(3);
+        for (Task t : tasks)
+            ts.addTask(t);
+
+        assertEquals(0, ts.addDependency(tasks.get(1), tasks.get(0)).size());
+        assertEquals(0, ts.addDependency(tasks.get(2), tasks.get(1)).size());
+        assertEquals(3, ts.addDependency(tasks.get(0), tasks.get(2)).size());
+        assertEquals(0, tasks.get(0).getDependencies().size()); // the loop is not added
+        assertEquals(1, tasks.get(2).getDependents().size() + tasks.get(2).getDependencies().size());
+
+    }
+
     @Test (timeout = 10000)
     public void testAll() {
 
@@ -156,4 +156,45 @@ public class TaskTest extends TestDataGenerator {
 		testEquality(tests.get(7), tests.get(8), false);
 	}
 
+	@Test (timeout = 100)
+	public void testRemovalKeepsOrder() {
+		Task t = randomTask();
+		ArrayList<Task> others = randomTaskArray(5);
+		for (Task other : others) {
+			t.addDependency(other);
+			t.addDependent(other);
+		}
+		t.removeDependency(others.get(1));
+		t.removeDependent(others.get(1));
+		others.remove(1);
+		assertEquals(others, t.getDependencies()); // short lists are shown in the order they were built
+		assertEquals(others, t.getDependents());
+	}
+
+	@Test (timeout = 2000)
+	public void testLongDependencyLists() {
+		Task t = randomTask();
+		ArrayList<Task> others = randomTaskArray(500);
+		HashSet<Task> dependencies = new HashSet<Task>(), dependents = new HashSet<Task>();
+		Random random = new Random();
+		for (int i = 0; i < 20000; i++) { // the lists grow past the 16 tasks from which they are indexed, then shrink
+			Task other = others.get(random.nextInt(others.size()));
+			if (random.nextInt(3) < (i < 10000 ? 1 : 2)) {
+				assertEquals(dependencies.remove(other), t.removeDependency(other));
+				assertEquals(dependents.remove(other), t.removeDependent(other));
+			} else {
+				assertEquals(dependencies.add(other), t.addDependency(other));
+				assertEquals(dependents.add(other), t.addDependent(other));
+			}
+			assertEquals(dependencies.contains(other), t.hasDependency(other));
+			assertEquals(dependents.contains(other), t.hasDependent(other));
+		}
+		assertArrayListSetEquals(dependencies, t.getDependencies());
+		assertArrayListSetEquals(dependents, t.getDependents());
+		for (Task other : others) {
+			assertEquals(dependencies.contains(other), t.hasDependency(other));
+			assertEquals(dependents.contains(other), t.hasDependent(other));
+		}
+	}
+
 }
@@ -48,6 +48,19 @@ public class TestDataGenerator {
 		return ret;
 	}
 
+    public static void link(Task dependency, Task dependent) {
+        dependency.addDependent(dependent);
+        dependent.addDependency(dependency);
+    }
+
+    public static ArrayList<Person> randomPeople(int n) {
+        ArrayList<Person> people = new ArrayList<Person>();
+        for (int i = 0; i < n; i++) {
+            people.add(randomPerson());
+        }
+        return people;
+    }
+
     public static int randInt(int n) {
         return random.nextInt(n);
     }